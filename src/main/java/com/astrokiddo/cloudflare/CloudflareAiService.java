@@ -1,6 +1,8 @@
 package com.astrokiddo.cloudflare;
 
 import com.astrokiddo.config.CloudflareAiProperties;
+import com.astrokiddo.resilience.Upstream;
+import com.astrokiddo.resilience.UpstreamPolicies;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,9 +11,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
-import reactor.util.retry.Retry;
 
-import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,12 +24,15 @@ public class CloudflareAiService {
     private final WebClient client;
     private final CloudflareAiProperties properties;
     private final ObjectMapper objectMapper;
+    private final UpstreamPolicies policies;
 
     public CloudflareAiService(WebClient cloudflareAiWebClient,
-                               CloudflareAiProperties properties, ObjectMapper objectMapper) {
+                               CloudflareAiProperties properties, ObjectMapper objectMapper,
+                               UpstreamPolicies policies) {
         this.client = cloudflareAiWebClient;
         this.properties = properties;
         this.objectMapper = objectMapper;
+        this.policies = policies;
     }
 
     public Mono<CloudflareAiRecords.EnrichmentResponse> enrich(String topic, String gradeLevel) {
@@ -54,21 +57,12 @@ public class CloudflareAiService {
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(CloudflareAiRecords.CfAiEnvelope.class)
+                .transform(policies.policy(Upstream.CLOUDFLARE_AI))
                 .map(CloudflareAiValidationUtil::validateOrThrow)
-                .timeout(Duration.ofSeconds(60))
-                .retryWhen(Retry.backoff(1, Duration.ofMillis(250))
-                        .maxBackoff(Duration.ofSeconds(1))
-                        .jitter(0.2)
-                        .filter(this::isTransient))
                 .map(env -> env.result().response())
                         .doOnError(ex -> log.warn("Cloudflare AI call failed: {}", ex.getMessage())));
     }
 
-    private boolean isTransient(Throwable throwable) {
-        return throwable instanceof java.io.IOException
-                || (throwable.getCause() != null && throwable.getCause() instanceof java.io.IOException);
-    }
-
     private CloudflareAiRequest buildRequest(String topic, String gradeLevel) {
         String systemPrompt = buildSystemPrompt();
         String userPrompt = buildUserPrompt(topic, gradeLevel);
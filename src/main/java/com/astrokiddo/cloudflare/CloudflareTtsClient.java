@@ -1,6 +1,8 @@
 package com.astrokiddo.cloudflare;
 
 import com.astrokiddo.config.CloudflareAiProperties;
+import com.astrokiddo.resilience.Upstream;
+import com.astrokiddo.resilience.UpstreamPolicies;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -20,10 +22,13 @@ public class CloudflareTtsClient {
 
     private final WebClient client;
     private final CloudflareAiProperties properties;
+    private final UpstreamPolicies policies;
 
-    public CloudflareTtsClient(WebClient cloudflareAiWebClient, CloudflareAiProperties properties) {
+    public CloudflareTtsClient(WebClient cloudflareAiWebClient, CloudflareAiProperties properties,
+                               UpstreamPolicies policies) {
         this.client = cloudflareAiWebClient;
         this.properties = properties;
+        this.policies = policies;
     }
 
     public Mono<byte[]> synthesize(String text, String speaker) {
@@ -52,6 +57,7 @@ public class CloudflareTtsClient {
                 .bodyValue(body)
                 .retrieve()
                 .bodyToMono(byte[].class)
+                .transform(policies.policy(Upstream.CLOUDFLARE_TTS))
                 .onErrorResume(WebClientResponseException.class, ex -> {
                     String response = ex.getResponseBodyAsString(StandardCharsets.UTF_8);
                     String message = "Cloudflare TTS call failed: " + ex.getStatusCode() + " " + response;
@@ -1,32 +1,131 @@
 package com.astrokiddo.config;
 
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import com.astrokiddo.nasa.ApodResult;
+import com.astrokiddo.nasa.ImageSearchResult;
+import com.astrokiddo.nasa.NasaCacheEntry;
+import com.astrokiddo.store.RenderedDeckStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.context.annotation.Configuration;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.astrokiddo.dto.ApodResponseDto;
-import com.astrokiddo.dto.ImageSearchResponseDto;
 import org.springframework.context.annotation.Bean;
-import reactor.core.publisher.Mono;
-
-import java.time.Duration;
 
 @Configuration
 public class CacheConfig {
     @Bean
-    public Cache<String, Mono<ApodResponseDto>> apodCache() {
-        return Caffeine.newBuilder()
-                .maximumSize(365)
-                .expireAfterWrite(Duration.ofHours(24))
+    public AsyncCache<String, NasaCacheEntry<ApodResult>> apodCache(NasaProperties nasaProperties,
+                                                                  MeterRegistry meterRegistry) {
+        NasaProperties.CacheSettings settings = nasaProperties.getCache();
+        AsyncCache<String, NasaCacheEntry<ApodResult>> cache = Caffeine.newBuilder()
+                .maximumWeight(settings.getApodMaxWeightBytes())
+                .<String, NasaCacheEntry<ApodResult>>weigher((key, entry) -> estimateBytes(key, entry.value()))
+                .expireAfter(NasaCacheEntry.<String, ApodResult>expiry(settings.getApodTtl(), settings.getFallbackTtl()))
+                .recordStats()
+                .buildAsync();
+        monitorWeight(meterRegistry, cache, "nasaApod");
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "nasaApod");
+    }
+
+    @Bean
+    public AsyncCache<String, NasaCacheEntry<ImageSearchResult>> imageSearchCache(NasaProperties nasaProperties,
+                                                                                MeterRegistry meterRegistry) {
+        NasaProperties.CacheSettings settings = nasaProperties.getCache();
+        AsyncCache<String, NasaCacheEntry<ImageSearchResult>> cache = Caffeine.newBuilder()
+                .maximumWeight(settings.getImageSearchMaxWeightBytes())
+                .<String, NasaCacheEntry<ImageSearchResult>>weigher((key, entry) -> estimateBytes(key, entry.value()))
+                .expireAfter(NasaCacheEntry.<String, ImageSearchResult>expiry(settings.getImageSearchTtl(),
+                        settings.getFallbackTtl()))
+                .recordStats()
+                .buildAsync();
+        monitorWeight(meterRegistry, cache, "nasaImageSearch");
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "nasaImageSearch");
+    }
+
+    @Bean
+    public Cache<Long, LessonDeck> lessonDeckCache(DeckProperties deckProperties, MeterRegistry meterRegistry) {
+        DeckProperties.CacheSettings settings = deckProperties.getCache();
+        // Every entry weighs at least maxWeight / maxEntries, so the weight bound also caps the entry count.
+        int minWeight = (int) Math.max(1, settings.getMaxWeightBytes() / Math.max(1, settings.getMaxEntries()));
+        Cache<Long, LessonDeck> cache = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaxWeightBytes())
+                .<Long, LessonDeck>weigher((id, deck) -> Math.max(minWeight, estimateBytes(deck)))
+                .expireAfterWrite(settings.getExpireAfterWrite())
                 .recordStats()
                 .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "lessonDecks");
     }
 
     @Bean
-    public Cache<String, Mono<ImageSearchResponseDto>> imageSearchCache() {
-        return Caffeine.newBuilder()
-                .maximumSize(2000)
-                .expireAfterWrite(Duration.ofMinutes(20))
+    public Cache<Long, RenderedDeckStore.RenderedDeck> renderedDeckCache(DeckProperties deckProperties,
+                                                                         MeterRegistry meterRegistry) {
+        Cache<Long, RenderedDeckStore.RenderedDeck> cache = Caffeine.newBuilder()
+                .maximumWeight(deckProperties.getRenderCache().getMaxWeightBytes())
+                .<Long, RenderedDeckStore.RenderedDeck>weigher((id, rendered) -> rendered.weight())
                 .recordStats()
                 .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "renderedDecks");
+    }
+
+    @Bean
+    public Cache<String, Long> deckKeyIndexCache(DeckProperties deckProperties) {
+        DeckProperties.CacheSettings settings = deckProperties.getCache();
+        return Caffeine.newBuilder()
+                .maximumSize(settings.getMaxEntries())
+                .expireAfterWrite(settings.getExpireAfterWrite())
+                .build();
+    }
+
+    private static int estimateBytes(LessonDeck deck) {
+        long bytes = 256 + chars(deck.getId()) + chars(deck.getTopic()) + chars(deck.getGradeLevel()) + chars(deck.getLocale());
+        if (deck.getSlides() != null) {
+            for (Slide slide : deck.getSlides()) {
+                bytes += 160 + chars(slide.getTitle()) + chars(slide.getText()) + chars(slide.getImageUrl())
+                        + chars(slide.getAttribution()) + chars(slide.getTtsAudioUrl());
+            }
+        }
+        if (deck.getEnrichment() != null) {
+            // Records print all components, which is a close enough proxy for the retained strings.
+            bytes += 128 + chars(deck.getEnrichment().toString());
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static void monitorWeight(MeterRegistry meterRegistry, AsyncCache<?, ?> cache, String name) {
+        Gauge.builder("astrokiddo.cache.weighted.size", cache, c -> c.synchronous().policy().eviction()
+                        .flatMap(eviction -> eviction.weightedSize().stream().boxed().findFirst())
+                        .orElse(0L))
+                .description("Estimated retained bytes held by the cache")
+                .baseUnit("bytes")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    private static int estimateBytes(String key, ApodResult apod) {
+        long bytes = 160 + chars(key) + chars(apod.date()) + chars(apod.title()) + chars(apod.explanation())
+                + chars(apod.mediaType()) + chars(apod.url()) + chars(apod.hdurl()) + chars(apod.thumbnailUrl())
+                + chars(apod.copyright());
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int estimateBytes(String key, ImageSearchResult result) {
+        // Cache node, entry and future overhead, plus the key.
+        long bytes = 160 + chars(key);
+        for (ImageSearchResult.Item item : result.items()) {
+            bytes += 96 + chars(item.href()) + chars(item.nasaId()) + chars(item.title())
+                    + chars(item.description()) + chars(item.center());
+            for (ImageSearchResult.Link link : item.links()) {
+                bytes += 32 + chars(link.href()) + chars(link.render());
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
     }
 }
@@ -21,6 +21,7 @@ public class CloudflareAiProperties {
     private boolean enabled = true;
     private int maxVocabulary = 3;
     private double temperature = 0.6;
+    private int maxConnections = 20;
 
     public String getAiModel() {
         return cfAiProvider + "/" + cfAiVendor + "/" + cfAiModel;
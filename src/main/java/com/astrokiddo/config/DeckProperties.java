@@ -0,0 +1,83 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.deck")
+@Getter
+@Setter
+public class DeckProperties {
+    private Duration validity = Duration.ofDays(60);
+    private Duration partialValidity = Duration.ofHours(1);
+    private Duration staleGrace = Duration.ofDays(7);
+    private CacheSettings cache = new CacheSettings();
+    private RenderCacheSettings renderCache = new RenderCacheSettings();
+    private GenerationSettings generation = new GenerationSettings();
+    private BatchSettings batch = new BatchSettings();
+    private PrewarmSettings prewarm = new PrewarmSettings();
+    private SweeperSettings sweeper = new SweeperSettings();
+
+    @Getter
+    @Setter
+    public static class CacheSettings {
+        private long maxEntries = 1000;
+        private long maxWeightBytes = 64L * 1024 * 1024;
+        private Duration expireAfterWrite = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class RenderCacheSettings {
+        private boolean enabled = false;
+        private long maxWeightBytes = 32L * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class GenerationSettings {
+        private Duration deadline = Duration.ofSeconds(20);
+        private Duration backgroundDeadline = Duration.ofSeconds(60);
+        private Duration imagesTimeout = Duration.ofSeconds(8);
+        private Duration enrichmentTimeout = Duration.ofSeconds(18);
+    }
+
+    @Getter
+    @Setter
+    public static class BatchSettings {
+        private int concurrency = 8;
+        private int maxItems = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class PrewarmSettings {
+        private boolean enabled = false;
+        private String cron = "0 0 5 * * MON-FRI";
+        private List<String> topics = new ArrayList<>();
+        private List<String> gradeLevels = new ArrayList<>();
+        private List<String> locales = new ArrayList<>();
+        private Duration refreshWindow = Duration.ofDays(7);
+        private int maxPerMinute = 20;
+        private int concurrency = 2;
+        private Duration deadline = Duration.ofSeconds(60);
+    }
+
+    @Getter
+    @Setter
+    public static class SweeperSettings {
+        private boolean enabled = false;
+        private Duration interval = Duration.ofHours(1);
+        private Duration initialDelay = Duration.ofMinutes(5);
+        private Duration retention = Duration.ofDays(30);
+        private int batchSize = 200;
+        private Duration batchPause = Duration.ofSeconds(1);
+        private int maxBatchesPerRun = 100;
+    }
+}
@@ -1,5 +1,6 @@
 package com.astrokiddo.config;
 
+import com.astrokiddo.controller.DeckController;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.web.reactive.config.CorsRegistry;
@@ -15,6 +16,7 @@ public class DevCorsConfig implements WebFluxConfigurer {
                 .allowedOrigins("http://localhost:4200")
                 .allowedMethods("*")
                 .allowedHeaders("*")
+                .exposedHeaders(DeckController.STALE_HEADER)
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.time.LocalDate;
+
 @Configuration
 @ConfigurationProperties(prefix = "app.nasa")
 @Getter
@@ -13,4 +16,85 @@ public class NasaProperties {
     private String apiKey;
     private String apodBaseUrl;
     private String imagesBaseUrl;
+    private int maxConnections = 50;
+    /**
+     * Earliest APOD date served on demand and backfilled. NASA's archive starts on 1995-06-16.
+     */
+    private LocalDate apodMinDate = LocalDate.of(1995, 6, 16);
+    /**
+     * Image search items decoded per response; lesson decks use the first three.
+     */
+    private int imageSearchMaxItems = 3;
+    private CacheSettings cache = new CacheSettings();
+    private ImageSearchL2Settings imageSearchL2 = new ImageSearchL2Settings();
+    private QuotaSettings quota = new QuotaSettings();
+    private ApodBackfillSettings apodBackfill = new ApodBackfillSettings();
+
+    @Getter
+    @Setter
+    public static class CacheSettings {
+        private Duration apodTtl = Duration.ofHours(24);
+        private Duration imageSearchTtl = Duration.ofMinutes(20);
+        /**
+         * Heap budgets, in estimated retained bytes, for the in-process APOD and image search caches.
+         */
+        private long apodMaxWeightBytes = 4 * 1024 * 1024;
+        private long imageSearchMaxWeightBytes = 16 * 1024 * 1024;
+        /**
+         * How long an empty fallback (upstream error or timeout) stays cached before the next lookup retries.
+         */
+        private Duration fallbackTtl = Duration.ofSeconds(60);
+        /**
+         * Minimum age of a served fallback before a background refresh is attempted.
+         */
+        private Duration fallbackRefreshAfter = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Postgres-backed cache of image search responses, consulted on a local cache miss.
+     */
+    @Getter
+    @Setter
+    public static class ImageSearchL2Settings {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofHours(24);
+        private int maxPendingWrites = 64;
+        private Duration purgeInterval = Duration.ofHours(1);
+        private int purgeBatchSize = 1000;
+    }
+
+    /**
+     * Token bucket shared by the APOD and image search clients, refilled at the API key's hourly limit and
+     * corrected from the X-RateLimit-Remaining response header.
+     */
+    @Getter
+    @Setter
+    public static class QuotaSettings {
+        private boolean enabled = true;
+        private int hourlyLimit = 1000;
+        /**
+         * Share of the hourly limit that background requests may not dip into.
+         */
+        private double backgroundReserve = 0.2;
+        private Duration interactiveMaxWait = Duration.ofSeconds(2);
+        private Duration backgroundMaxWait = Duration.ofSeconds(60);
+    }
+
+    /**
+     * Fills APOD history between {@code startDate} and {@code endDate} (default: today) with range requests.
+     */
+    @Getter
+    @Setter
+    public static class ApodBackfillSettings {
+        private boolean enabled = false;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        /**
+         * Days per range request; each chunk is also inserted as one batch.
+         */
+        private int chunkDays = 60;
+        private int ttsConcurrency = 2;
+        private Duration interval = Duration.ofHours(6);
+        private Duration initialDelay = Duration.ofMinutes(1);
+    }
 }
@@ -1,5 +1,7 @@
 package com.astrokiddo.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -17,7 +19,11 @@ public class ProdSecurityConfig {
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .cors(ServerHttpSecurity.CorsSpec::disable)
-                .authorizeExchange(ex -> ex.anyExchange().permitAll())
+                // Only health is public; metrics and any other actuator endpoint stay off the public port.
+                .authorizeExchange(ex -> ex
+                        .matchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .matchers(EndpointRequest.toAnyEndpoint()).denyAll()
+                        .anyExchange().permitAll())
                 .build();
     }
 }
@@ -0,0 +1,92 @@
+package com.astrokiddo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.resilience")
+@Getter
+@Setter
+public class ResilienceProperties {
+    /**
+     * Per-upstream policy, keyed by {@link com.astrokiddo.resilience.Upstream#id()}; missing entries use the defaults.
+     */
+    private Map<String, UpstreamSettings> upstreams = new LinkedHashMap<>();
+
+    public UpstreamSettings upstream(String id) {
+        return upstreams.getOrDefault(id, new UpstreamSettings());
+    }
+
+    @Getter
+    @Setter
+    public static class UpstreamSettings {
+        /**
+         * Deadline for a single attempt.
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+        private RetrySettings retry = new RetrySettings();
+        private CircuitBreakerSettings circuitBreaker = new CircuitBreakerSettings();
+        private HedgeSettings hedge = new HedgeSettings();
+    }
+
+    @Getter
+    @Setter
+    public static class RetrySettings {
+        /**
+         * Attempts per call including the first; a retry also needs a credit from the upstream's retry budget.
+         */
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(300);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private double jitter = 0.2;
+        /**
+         * Retries allowed as a fraction of calls, shared by all callers of the upstream.
+         */
+        private double budgetRatio = 0.2;
+        /**
+         * Credit the budget can bank while traffic is healthy, i.e. the largest burst of retries.
+         */
+        private double budgetMaxCredit = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreakerSettings {
+        private boolean enabled = true;
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    /**
+     * Sends a second identical request when the first has not answered within the observed latency percentile.
+     */
+    @Getter
+    @Setter
+    public static class HedgeSettings {
+        private boolean enabled = false;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(100);
+        private Duration maxDelay = Duration.ofSeconds(4);
+        /**
+         * Hedge delay used until {@code minSamples} latencies have been observed.
+         */
+        private Duration initialDelay = Duration.ofSeconds(1);
+        private int minSamples = 20;
+        private int sampleWindow = 256;
+        /**
+         * Upper bound on hedges as a fraction of requests.
+         */
+        private double maxRatio = 0.1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.astrokiddo.config;
 
+import com.astrokiddo.nasa.NasaQuotaGovernor;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.timeout.ReadTimeoutHandler;
@@ -25,9 +26,9 @@ import java.time.Duration;
 @Configuration
 public class WebClientConfig {
     @Bean
-    public ConnectionProvider nasaConnProvider() {
+    public ConnectionProvider nasaConnProvider(NasaProperties props) {
         return ConnectionProvider.builder("nasa")
-                .maxConnections(50)
+                .maxConnections(props.getMaxConnections())
                 .pendingAcquireTimeout(Duration.ofSeconds(5))
                 .maxIdleTime(Duration.ofSeconds(30))
                 .maxLifeTime(Duration.ofMinutes(2))
@@ -35,19 +36,21 @@ public class WebClientConfig {
     }
 
     @Bean
-    public WebClient apodWebClient(NasaProperties props, ConnectionProvider nasaConnProvider) {
-        return base(props.getApodBaseUrl(), nasaConnProvider);
+    public WebClient apodWebClient(NasaProperties props, ConnectionProvider nasaConnProvider,
+                                   NasaQuotaGovernor nasaQuotaGovernor) {
+        return base(props.getApodBaseUrl(), nasaConnProvider).mutate().filter(nasaQuotaGovernor).build();
     }
 
     @Bean
-    public WebClient imagesWebClient(NasaProperties props, ConnectionProvider nasaConnProvider) {
-        return base(props.getImagesBaseUrl(), nasaConnProvider);
+    public WebClient imagesWebClient(NasaProperties props, ConnectionProvider nasaConnProvider,
+                                     NasaQuotaGovernor nasaQuotaGovernor) {
+        return base(props.getImagesBaseUrl(), nasaConnProvider).mutate().filter(nasaQuotaGovernor).build();
     }
 
     @Bean
-    public ConnectionProvider cloudflareAiConnProvider() {
+    public ConnectionProvider cloudflareAiConnProvider(CloudflareAiProperties props) {
         return ConnectionProvider.builder("cloudflare-ai")
-                .maxConnections(20)
+                .maxConnections(props.getMaxConnections())
                 .pendingAcquireTimeout(Duration.ofSeconds(5))
                 .maxIdleTime(Duration.ofSeconds(30))
                 .maxLifeTime(Duration.ofMinutes(2))
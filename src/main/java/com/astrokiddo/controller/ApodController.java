@@ -1,6 +1,7 @@
 package com.astrokiddo.controller;
 
 import com.astrokiddo.dto.ApodResponseDto;
+import com.astrokiddo.dto.CursorPageDto;
 import com.astrokiddo.service.ApodService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -8,14 +9,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.concurrent.TimeUnit;
 
@@ -29,14 +33,34 @@ public class ApodController {
         this.apodService = apodService;
     }
 
+    /**
+     * Validators come from the stored row's {@code updated_at}, read by date before the APOD itself, so a
+     * conditional request for a stored date answers 304 without loading or fetching anything.
+     */
     @GetMapping
     public Mono<ResponseEntity<ApodResponseDto>> getApod(
             @RequestParam(value = "date", required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return apodService.getOrCreateApod(date)
-                .map(apod -> ResponseEntity.ok()
-                        .cacheControl(CacheControl.maxAge(24, TimeUnit.HOURS).cachePublic())
-                        .body(apod));
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            ServerWebExchange exchange) {
+        return apodService.getVersion(date)
+                .flatMap(version -> {
+                    String eTag = apodETag(version);
+                    if (exchange.checkNotModified(eTag, version.updatedAt())) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .cacheControl(CacheControl.maxAge(24, TimeUnit.HOURS).cachePublic())
+                                .eTag(eTag)
+                                .lastModified(version.updatedAt())
+                                .<ApodResponseDto>build());
+                    }
+                    return apodService.getOrCreateApod(version.date()).map(apod -> apodResponse(apod, version));
+                })
+                // Not stored yet: fetch it, then read the version the new row was stored with.
+                .switchIfEmpty(Mono.defer(() -> apodService.getOrCreateApod(date)
+                        .flatMap(apod -> apodService.getVersion(date)
+                                .map(version -> apodResponse(apod, version))
+                                .defaultIfEmpty(ResponseEntity.ok()
+                                        .cacheControl(CacheControl.maxAge(24, TimeUnit.HOURS).cachePublic())
+                                        .body(apod)))));
     }
 
     @GetMapping("/history")
@@ -54,4 +78,27 @@ public class ApodController {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, property));
         return apodService.listApods(pageable);
     }
+
+    @GetMapping(path = "/history", params = "cursor")
+    public Mono<CursorPageDto<ApodResponseDto>> getApodHistoryByCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal
+    ) {
+        return apodService.listApodsByCursor(cursor, size, includeTotal);
+    }
+
+    private ResponseEntity<ApodResponseDto> apodResponse(ApodResponseDto apod, ApodService.Version version) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(24, TimeUnit.HOURS).cachePublic())
+                .eTag(apodETag(version))
+                .lastModified(version.updatedAt())
+                .body(apod);
+    }
+
+    private String apodETag(ApodService.Version version) {
+        Instant updatedAt = version.updatedAt();
+        long micros = updatedAt.getEpochSecond() * 1_000_000L + updatedAt.getNano() / 1_000;
+        return "\"" + version.date() + "-" + Long.toHexString(micros) + "\"";
+    }
 }
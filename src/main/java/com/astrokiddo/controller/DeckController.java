@@ -1,21 +1,33 @@
 package com.astrokiddo.controller;
 
+import com.astrokiddo.dto.BatchDeckResultDto;
+import com.astrokiddo.dto.CursorPageDto;
+import com.astrokiddo.dto.DeckGenerationEventDto;
 import com.astrokiddo.dto.GenerateDeckRequestDto;
 import com.astrokiddo.model.LessonDeck;
 import com.astrokiddo.service.DeckService;
+import com.astrokiddo.store.RenderedDeckStore;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 
@@ -23,15 +35,37 @@ import java.util.concurrent.TimeUnit;
 @RequestMapping(path = "/api/decks", produces = MediaType.APPLICATION_JSON_VALUE)
 public class DeckController {
 
+    public static final String STALE_HEADER = "X-Deck-Stale";
+
     private final DeckService deckService;
+    private final RenderedDeckStore renderedDeckStore;
 
-    public DeckController(DeckService deckService) {
+    public DeckController(DeckService deckService, RenderedDeckStore renderedDeckStore) {
         this.deckService = deckService;
+        this.renderedDeckStore = renderedDeckStore;
     }
 
     @PostMapping(path = "/generate", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<LessonDeck> generate(@Valid @RequestBody GenerateDeckRequestDto req) {
-        return deckService.findOrGenerate(req);
+    public Mono<ResponseEntity<LessonDeck>> generate(@Valid @RequestBody GenerateDeckRequestDto req) {
+        return deckService.findOrGenerate(req)
+                .map(deck -> ResponseEntity.ok()
+                        .header(STALE_HEADER, String.valueOf(isStale(deck)))
+                        .body(deck));
+    }
+
+    @PostMapping(path = "/generate", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DeckGenerationEventDto>> generateStream(@Valid @RequestBody GenerateDeckRequestDto req) {
+        return deckService.streamGenerate(req)
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getType())
+                        .build());
+    }
+
+    @PostMapping(path = "/generate/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchDeckResultDto> generateBatch(@RequestBody List<GenerateDeckRequestDto> requests) {
+        return deckService.generateBatch(requests);
     }
 
     @GetMapping
@@ -39,24 +73,128 @@ public class DeckController {
                                             @RequestParam(required = false) String gradeLevel,
                                             @RequestParam(required = false) String locale,
                                             @RequestParam(required = false) String nasaSource,
+                                            @RequestParam(required = false) String search,
                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdAfter,
                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdBefore,
                                             @RequestParam(name = "page", defaultValue = "0") int page,
                                             @RequestParam(name = "size", defaultValue = "20") int size,
                                             @RequestParam(name = "sort", required = false) String sort) {
         Pageable pageable = createPageable(page, size, sort);
-        return deckService.listDecks(topic, gradeLevel, locale, nasaSource, createdAfter, createdBefore, pageable);
+        return deckService.listDecks(topic, gradeLevel, locale, nasaSource, search, createdAfter, createdBefore, pageable);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<CursorPageDto<LessonDeck>> listDecksByCursor(@RequestParam(required = false) String topic,
+                                                             @RequestParam(required = false) String gradeLevel,
+                                                             @RequestParam(required = false) String locale,
+                                                             @RequestParam(required = false) String nasaSource,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdAfter,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdBefore,
+                                                             @RequestParam(name = "cursor", required = false) String cursor,
+                                                             @RequestParam(name = "size", defaultValue = "20") int size,
+                                                             @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        return deckService.listDecksByCursor(topic, gradeLevel, locale, nasaSource, createdAfter, createdBefore,
+                cursor, size, includeTotal);
     }
 
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<LessonDeck>> get(@PathVariable Long id) {
-        return deckService.getById(id)
-                .map(deck -> ResponseEntity.ok()
-                        .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
-                        .body(deck))
+    public Mono<ResponseEntity<?>> get(@PathVariable Long id, ServerWebExchange exchange) {
+        boolean gzip = renderedDeckStore.isEnabled() && acceptsGzip(exchange);
+        return deckService.getLastModified(id)
+                .<ResponseEntity<?>>flatMap(lastModified -> {
+                    String eTag = deckETag(id, lastModified);
+                    if (exchange.checkNotModified(eTag, lastModified)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
+                                .eTag(eTag)
+                                .lastModified(lastModified)
+                                .build());
+                    }
+                    if (renderedDeckStore.isEnabled()) {
+                        return renderedDeckStore.get(id, lastModified, () -> deckService.getById(id, lastModified))
+                                .map(rendered -> renderedResponse(id, rendered, gzip, exchange));
+                    }
+                    return deckService.getById(id, lastModified)
+                            .map(deck -> {
+                                Instant version = deck.getUpdatedAt() != null ? deck.getUpdatedAt() : lastModified;
+                                return ResponseEntity.ok()
+                                        .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
+                                        .eTag(deckETag(id, version))
+                                        .lastModified(version)
+                                        .header(STALE_HEADER, String.valueOf(isStale(deck)))
+                                        .body(deck);
+                            });
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> ResponseEntity.notFound().build()))
                 .onErrorResume(NoSuchElementException.class, ex -> Mono.just(ResponseEntity.notFound().build()));
     }
 
+    private ResponseEntity<DataBuffer> renderedResponse(Long id, RenderedDeckStore.RenderedDeck rendered,
+                                                        boolean gzip, ServerWebExchange exchange) {
+        boolean encoded = gzip && rendered.gzip() != null;
+        byte[] body = encoded ? rendered.gzip() : rendered.json();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
+                .eTag(deckETag(id, rendered.version()))
+                .lastModified(rendered.version())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(STALE_HEADER, String.valueOf(isStale(rendered.expiresAt())));
+        if (encoded) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(exchange.getResponse().bufferFactory().wrap(body));
+    }
+
+    /**
+     * Whether the client accepts gzip with a non-zero quality, either by name or through {@code *}.
+     */
+    private boolean acceptsGzip(ServerWebExchange exchange) {
+        Double gzip = null;
+        Double wildcard = null;
+        for (String header : exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String element : header.split(",")) {
+                String[] parts = element.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                        try {
+                            quality = Double.parseDouble(param.substring(2).trim());
+                        } catch (NumberFormatException ex) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                    gzip = quality;
+                } else if (coding.equals("*")) {
+                    wildcard = quality;
+                }
+            }
+        }
+        double quality = gzip != null ? gzip : wildcard != null ? wildcard : 0;
+        return quality > 0;
+    }
+
+    /**
+     * Weak, so one validator covers the identity and gzip encodings of the same deck version.
+     */
+    private String deckETag(Long id, Instant updatedAt) {
+        long micros = updatedAt.getEpochSecond() * 1_000_000L + updatedAt.getNano() / 1_000;
+        return "W/\"" + id + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    private boolean isStale(LessonDeck deck) {
+        return isStale(deck.getExpiresAt());
+    }
+
+    private boolean isStale(Instant expiresAt) {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+
     private Pageable createPageable(int page, int size, String sort) {
         if (sort == null || sort.isBlank()) {
             return PageRequest.of(page, size);
@@ -0,0 +1,21 @@
+package com.astrokiddo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchDeckResultDto {
+    private int index;
+    private String topic;
+    private String gradeLevel;
+    private String locale;
+    private String deckId;
+    private String error;
+}
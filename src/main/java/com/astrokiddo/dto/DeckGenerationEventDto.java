@@ -0,0 +1,43 @@
+package com.astrokiddo.dto;
+
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeckGenerationEventDto {
+    public static final String TEMPLATE = "template";
+    public static final String SLIDE = "slide";
+    public static final String COMPLETE = "complete";
+
+    @JsonIgnore
+    private String type;
+    private List<Slide> slides;
+    private Integer index;
+    private Slide slide;
+    private String deckId;
+    private LessonDeck deck;
+
+    public static DeckGenerationEventDto template(List<Slide> slides) {
+        return new DeckGenerationEventDto(TEMPLATE, slides, null, null, null, null);
+    }
+
+    public static DeckGenerationEventDto slide(int index, Slide slide) {
+        return new DeckGenerationEventDto(SLIDE, null, index, slide, null, null);
+    }
+
+    public static DeckGenerationEventDto complete(LessonDeck deck) {
+        return new DeckGenerationEventDto(COMPLETE, null, null, null, deck.getId(), deck);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.relational.core.mapping.Table;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Getter
@@ -42,4 +43,7 @@ public class Apod extends BaseEntity {
 
     @Column("tts_audio_url")
     private String ttsAudioUrl;
+
+    @Column("updated_at")
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.astrokiddo.model;
 
 import com.astrokiddo.cloudflare.CloudflareAiRecords;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -19,8 +20,15 @@ public class LessonDeck {
     private String gradeLevel;
     private String locale;
     private Instant createdAt;
+    private Instant updatedAt;
+    private Instant expiresAt;
     private List<Slide> slides = new ArrayList<>();
     private CloudflareAiRecords.EnrichmentResponse enrichment;
+    /**
+     * Set by generation when a stage timed out or failed, so the deck lacks images or enrichment it should have.
+     */
+    @JsonIgnore
+    private boolean partial;
 
     public LessonDeck(String topic) {
         this(topic, null, null);
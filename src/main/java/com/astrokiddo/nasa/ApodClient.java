@@ -2,25 +2,29 @@ package com.astrokiddo.nasa;
 
 import com.astrokiddo.config.NasaProperties;
 import com.astrokiddo.dto.ApodResponseDto;
-import io.netty.handler.timeout.TimeoutException;
+import com.astrokiddo.resilience.Upstream;
+import com.astrokiddo.resilience.UpstreamPolicies;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.PrematureCloseException;
-import reactor.util.retry.Retry;
 
-import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 
 @Component
 public class ApodClient {
     private final WebClient client;
     private final NasaProperties props;
+    private final UpstreamPolicies policies;
+    private final NasaQuotaGovernor quotaGovernor;
 
-    public ApodClient(WebClient apodWebClient, NasaProperties props) {
+    public ApodClient(WebClient apodWebClient, NasaProperties props, UpstreamPolicies policies,
+                     NasaQuotaGovernor quotaGovernor) {
         this.client = apodWebClient;
         this.props = props;
+        this.policies = policies;
+        this.quotaGovernor = quotaGovernor;
     }
 
     public Mono<ApodResponseDto> apod(LocalDate date) {
@@ -33,17 +37,26 @@ public class ApodClient {
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
                 .bodyToMono(ApodResponseDto.class)
-                .timeout(Duration.ofSeconds(8))
-                .retryWhen(Retry.backoff(2, Duration.ofMillis(300))
-                        .maxBackoff(Duration.ofSeconds(2))
-                        .jitter(0.2)
-                        .filter(this::isTransient))
+                .transform(policies.policy(Upstream.NASA_APOD, quotaGovernor))
                 .onErrorResume(ex -> Mono.just(new ApodResponseDto()));
     }
 
-    private boolean isTransient(Throwable t) {
-        return t instanceof TimeoutException
-                || t instanceof PrematureCloseException
-                || (t.getCause() != null && isTransient(t.getCause()));
+    /**
+     * Fetches every APOD from {@code start} to {@code end} inclusive in one request. Unlike {@link #apod(LocalDate)}
+     * failures are propagated, so a backfill can stop and resume later.
+     */
+    public Mono<List<ApodResponseDto>> apodRange(LocalDate start, LocalDate end) {
+        return client.get()
+                .uri(uri -> uri
+                        .queryParam("api_key", props.getApiKey())
+                        .queryParam("start_date", start.toString())
+                        .queryParam("end_date", end.toString())
+                        .queryParam("thumbs", "true")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(ApodResponseDto.class)
+                .collectList()
+                .transform(policies.policy(Upstream.NASA_APOD, quotaGovernor));
     }
 }
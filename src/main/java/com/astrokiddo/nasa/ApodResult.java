@@ -0,0 +1,17 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.dto.ApodResponseDto;
+
+/**
+ * Immutable view of an APOD response as held by the NASA cache.
+ */
+public record ApodResult(String date, String title, String explanation, String mediaType, String url,
+                         String hdurl, String thumbnailUrl, String copyright) {
+
+    public static final ApodResult EMPTY = new ApodResult(null, null, null, null, null, null, null, null);
+
+    public static ApodResult of(ApodResponseDto dto) {
+        return new ApodResult(dto.getDate(), dto.getTitle(), dto.getExplanation(), dto.getMediaType(), dto.getUrl(),
+                dto.getHdurl(), dto.getThumbnailUrl(), dto.getCopyright());
+    }
+}
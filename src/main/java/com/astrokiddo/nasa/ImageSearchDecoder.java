@@ -0,0 +1,185 @@
+package com.astrokiddo.nasa;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incrementally parses an image search response body with Jackson's non-blocking parser, keeping only the fields
+ * of {@link ImageSearchResult}. Once {@code maxItems} items are complete (or the items array closes) the body
+ * subscription is cancelled, so the rest of the response is neither buffered nor parsed.
+ */
+public final class ImageSearchDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Container depths: 1 root, 2 collection, 3 items, 4 item, 5 data/links, 6 data or link object.
+    private static final int ITEM_DEPTH = 4;
+    private static final int ITEM_CHILD_DEPTH = 6;
+
+    private ImageSearchDecoder() {
+    }
+
+    public static Mono<ImageSearchResult> decode(Flux<DataBuffer> body, int maxItems) {
+        return Mono.defer(() -> {
+            State state = new State(maxItems);
+            return body.takeUntil(buffer -> {
+                        try {
+                            return state.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(state::finish))
+                    .doFinally(signal -> state.close());
+        });
+    }
+
+    private static final class State {
+        private final int maxItems;
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final String[] containers = new String[8];
+        private final List<ImageSearchResult.Item> items = new ArrayList<>();
+        private int depth;
+        private boolean done;
+
+        private String href;
+        private String nasaId;
+        private String title;
+        private String description;
+        private String center;
+        private boolean dataSeen;
+        private List<ImageSearchResult.Link> links;
+        private String linkHref;
+        private String linkRender;
+
+        State(int maxItems) {
+            this.maxItems = Math.max(1, maxItems);
+            try {
+                this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        boolean feed(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                while (chunks.hasNext() && !done) {
+                    ByteBuffer chunk = chunks.next();
+                    feeder.feedInput(chunk);
+                    drain();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Malformed image search response", e);
+            }
+            return done;
+        }
+
+        ImageSearchResult finish() throws IOException {
+            if (!done) {
+                feeder.endOfInput();
+                drain();
+            }
+            return new ImageSearchResult(items);
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Nothing is held beyond the parser's own buffers.
+            }
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while (!done && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> open(token);
+                    case END_OBJECT, END_ARRAY -> close(token);
+                    case VALUE_STRING -> value(parser.currentName(), parser.getText());
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        private void open(JsonToken token) throws IOException {
+            depth++;
+            if (depth < containers.length) {
+                containers[depth] = parser.currentName();
+            }
+            if (!inItems()) {
+                return;
+            }
+            if (depth == ITEM_DEPTH && token == JsonToken.START_OBJECT) {
+                href = nasaId = title = description = center = null;
+                dataSeen = false;
+                links = new ArrayList<>(2);
+            } else if (depth == ITEM_CHILD_DEPTH && "links".equals(containers[5])) {
+                linkHref = linkRender = null;
+            }
+        }
+
+        private void close(JsonToken token) {
+            if (inItems()) {
+                if (depth == ITEM_DEPTH && token == JsonToken.END_OBJECT) {
+                    items.add(new ImageSearchResult.Item(href, nasaId, title, description, center, links));
+                    done = items.size() >= maxItems;
+                } else if (depth == ITEM_CHILD_DEPTH && token == JsonToken.END_OBJECT) {
+                    if ("data".equals(containers[5])) {
+                        dataSeen = true;
+                    } else if ("links".equals(containers[5]) && linkHref != null) {
+                        links.add(new ImageSearchResult.Link(linkHref, linkRender));
+                    }
+                }
+            } else if (depth == ITEM_DEPTH - 1 && "items".equals(containers[3]) && "collection".equals(containers[2])) {
+                done = true;
+            }
+            depth--;
+        }
+
+        private void value(String name, String text) {
+            if (!inItems() || name == null) {
+                return;
+            }
+            if (depth == ITEM_DEPTH) {
+                if ("href".equals(name)) {
+                    href = text;
+                }
+            } else if (depth == ITEM_CHILD_DEPTH && "data".equals(containers[5]) && !dataSeen) {
+                switch (name) {
+                    case "nasa_id" -> nasaId = text;
+                    case "title" -> title = text;
+                    case "description" -> description = text;
+                    case "center" -> center = text;
+                    default -> {
+                    }
+                }
+            } else if (depth == ITEM_CHILD_DEPTH && "links".equals(containers[5])) {
+                if ("href".equals(name)) {
+                    linkHref = text;
+                } else if ("render".equals(name)) {
+                    linkRender = text;
+                }
+            }
+        }
+
+        private boolean inItems() {
+            return depth >= ITEM_DEPTH && "collection".equals(containers[2]) && "items".equals(containers[3]);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.astrokiddo.nasa;
+
+import java.util.List;
+
+/**
+ * The part of a NASA image search response that lesson generation uses: the leading items, each reduced to its
+ * first data entry and its links.
+ */
+public record ImageSearchResult(List<Item> items) {
+
+    public static final ImageSearchResult EMPTY = new ImageSearchResult(List.of());
+
+    public ImageSearchResult {
+        items = items == null ? List.of() : List.copyOf(items);
+    }
+
+    public record Item(String href, String nasaId, String title, String description, String center,
+                       List<Link> links) {
+        public Item {
+            links = links == null ? List.of() : List.copyOf(links);
+        }
+    }
+
+    public record Link(String href, String render) {
+    }
+}
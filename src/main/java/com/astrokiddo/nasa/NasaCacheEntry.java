@@ -0,0 +1,45 @@
+package com.astrokiddo.nasa;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * A cached NASA response. Fallback entries stand in for a failed upstream call and expire on a much shorter TTL
+ * than real responses, so an outage is not pinned in the cache for the full success TTL.
+ */
+public record NasaCacheEntry<T>(T value, boolean fallback, long loadedAtNanos) {
+
+    public static <T> NasaCacheEntry<T> success(T value) {
+        return new NasaCacheEntry<>(value, false, System.nanoTime());
+    }
+
+    public static <T> NasaCacheEntry<T> fallback(T value) {
+        return new NasaCacheEntry<>(value, true, System.nanoTime());
+    }
+
+    public Duration age() {
+        return Duration.ofNanos(System.nanoTime() - loadedAtNanos);
+    }
+
+    public static <K, T> Expiry<K, NasaCacheEntry<T>> expiry(Duration ttl, Duration fallbackTtl) {
+        long ttlNanos = ttl.toNanos();
+        long fallbackTtlNanos = fallbackTtl.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, NasaCacheEntry<T> entry, long currentTime) {
+                return entry.fallback() ? fallbackTtlNanos : ttlNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, NasaCacheEntry<T> entry, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, entry, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(K key, NasaCacheEntry<T> entry, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package com.astrokiddo.nasa;
 
-import com.astrokiddo.dto.ImageSearchResponseDto;
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.resilience.Upstream;
+import com.astrokiddo.resilience.UpstreamPolicies;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -9,18 +12,32 @@ import reactor.core.publisher.Mono;
 @Component
 public class NasaImageClient {
     private final WebClient client;
+    private final int maxItems;
+    private final UpstreamPolicies policies;
+    private final NasaQuotaGovernor quotaGovernor;
 
-    public NasaImageClient(WebClient imagesWebClient) {
+    public NasaImageClient(WebClient imagesWebClient, NasaProperties props, UpstreamPolicies policies,
+                     NasaQuotaGovernor quotaGovernor) {
         this.client = imagesWebClient;
+        this.maxItems = props.getImageSearchMaxItems();
+        this.policies = policies;
+        this.quotaGovernor = quotaGovernor;
     }
 
-    public Mono<ImageSearchResponseDto> searchImages(String query, String mediaType, Integer yearStart, Integer yearEnd) {
+    /**
+     * Streams the search response and keeps only the first {@code app.nasa.image-search-max-items} items; the
+     * remainder of the body is never read.
+     */
+    public Mono<ImageSearchResult> searchImages(String query, String mediaType, Integer yearStart, Integer yearEnd) {
         return client.get().uri(uri -> {
             var b = uri.path("/search").queryParam("q", query);
             if (mediaType != null) b.queryParam("media_type", mediaType);
             if (yearStart != null) b.queryParam("year_start", yearStart);
             if (yearEnd != null) b.queryParam("year_end", yearEnd);
             return b.build();
-        }).accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(ImageSearchResponseDto.class);
+        }).accept(MediaType.APPLICATION_JSON).retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> ImageSearchDecoder.decode(body, maxItems))
+                .transform(policies.policy(Upstream.NASA_IMAGES, quotaGovernor));
     }
 }
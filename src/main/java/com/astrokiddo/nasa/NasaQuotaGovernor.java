@@ -0,0 +1,211 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.resilience.UpstreamGate;
+import com.astrokiddo.service.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Paces NASA API calls against the key's hourly quota. As an {@link UpstreamGate}, each attempt reserves a token
+ * before its timeout and circuit breaker start; when none is left the attempt is delayed until the bucket refills,
+ * or rejected with 429 if that would take longer than the priority's maximum wait. Background calls must leave a
+ * reserve in the bucket, so interactive calls are served first. A reservation that never reaches NASA, because
+ * the attempt was cancelled or rejected while queued, is returned to the bucket. A queued background attempt whose
+ * shared load is joined by an interactive caller gives up its place and is admitted again as interactive.
+ * <p>
+ * As an exchange filter on the NASA web clients, it marks reservations as sent and corrects the bucket whenever
+ * NASA reports its own view of the remaining quota.
+ */
+@Component
+public class NasaQuotaGovernor implements UpstreamGate, ExchangeFilterFunction {
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final NasaProperties.QuotaSettings settings;
+    private final double capacity;
+    private final double refillPerNano;
+    private final double backgroundReserve;
+    private final Map<RequestPriority, Timer> waitTimers = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> admitted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> queued = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> shed = new EnumMap<>(RequestPriority.class);
+    private final Counter throttled;
+
+    // Guarded by this. Negative while reservations are queued behind an empty bucket.
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private volatile double reportedRemaining = Double.NaN;
+
+    public NasaQuotaGovernor(NasaProperties nasaProperties, MeterRegistry meterRegistry) {
+        this.settings = nasaProperties.getQuota();
+        this.capacity = Math.max(1, settings.getHourlyLimit());
+        this.refillPerNano = capacity / Duration.ofHours(1).toNanos();
+        this.backgroundReserve = capacity * Math.min(1, Math.max(0, settings.getBackgroundReserve()));
+        this.tokens = capacity;
+        for (RequestPriority priority : RequestPriority.values()) {
+            waitTimers.put(priority, Timer.builder("astrokiddo.nasa.quota.wait")
+                    .description("Time NASA calls spent queued for quota")
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry));
+            admitted.put(priority, requestCounter(meterRegistry, priority, "admitted"));
+            queued.put(priority, requestCounter(meterRegistry, priority, "queued"));
+            shed.put(priority, requestCounter(meterRegistry, priority, "shed"));
+        }
+        this.throttled = meterRegistry.counter("astrokiddo.nasa.quota.throttled");
+        Gauge.builder("astrokiddo.nasa.quota.remaining", this, NasaQuotaGovernor::availableTokens)
+                .description("Tokens left in the local NASA quota bucket")
+                .register(meterRegistry);
+        Gauge.builder("astrokiddo.nasa.quota.reported", this, governor -> governor.reportedRemaining)
+                .description("Remaining quota last reported by NASA")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> Mono<T> admit(Mono<T> attempt) {
+        if (!settings.isEnabled()) {
+            return attempt;
+        }
+        return Mono.deferContextual(ctx -> {
+            RequestPriority priority = RequestPriority.get(ctx);
+            long waitNanos = reserve(priority);
+            if (waitNanos < 0) {
+                shed.get(priority).increment();
+                return Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "NASA API quota exhausted"));
+            }
+            waitTimers.get(priority).record(waitNanos, TimeUnit.NANOSECONDS);
+            Reservation reservation = new Reservation();
+            Mono<T> send = attempt.contextWrite(c -> c.put(Reservation.class, reservation));
+            if (waitNanos == 0) {
+                admitted.get(priority).increment();
+                return send.doFinally(signal -> release(reservation));
+            }
+            queued.get(priority).increment();
+            Mono<Boolean> raised = priority == RequestPriority.BACKGROUND
+                    ? RequestPriority.raisedToInteractive(ctx).thenReturn(true)
+                    : Mono.never();
+            return Mono.firstWithSignal(Mono.delay(Duration.ofNanos(waitNanos)).thenReturn(false), raised)
+                    .flatMap(escalated -> {
+                        if (!escalated) {
+                            return send;
+                        }
+                        release(reservation);
+                        return admit(attempt);
+                    })
+                    .doFinally(signal -> release(reservation));
+        });
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!settings.isEnabled()) {
+            return next.exchange(request);
+        }
+        return Mono.deferContextual(ctx -> {
+            ctx.<Reservation>getOrEmpty(Reservation.class).ifPresent(Reservation::markSent);
+            return next.exchange(request).doOnNext(this::onResponse);
+        });
+    }
+
+    /**
+     * Takes a token and returns how long the caller must wait for it, or -1 if the wait exceeds its maximum.
+     */
+    private synchronized long reserve(RequestPriority priority) {
+        refill();
+        double floor = priority == RequestPriority.BACKGROUND ? backgroundReserve : 0;
+        double deficit = floor + 1 - tokens;
+        long waitNanos = deficit <= 0 ? 0 : (long) Math.ceil(deficit / refillPerNano);
+        Duration maxWait = priority == RequestPriority.BACKGROUND
+                ? settings.getBackgroundMaxWait()
+                : settings.getInteractiveMaxWait();
+        if (waitNanos > maxWait.toNanos()) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    /**
+     * Returns the token of a reservation whose request was never sent.
+     */
+    private void release(Reservation reservation) {
+        if (reservation.settle()) {
+            synchronized (this) {
+                refill();
+                tokens = Math.min(capacity, tokens + 1);
+            }
+        }
+    }
+
+    private void onResponse(ClientResponse response) {
+        if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            throttled.increment();
+            synchronized (this) {
+                tokens = Math.min(tokens, 0);
+            }
+        }
+        String header = response.headers().asHttpHeaders().getFirst(REMAINING_HEADER);
+        if (header == null) {
+            return;
+        }
+        try {
+            double remaining = Math.max(0, Long.parseLong(header.trim()));
+            reportedRemaining = remaining;
+            synchronized (this) {
+                refill();
+                // Queued reservations have already been promised tokens; only resync an unqueued bucket.
+                if (tokens >= 0) {
+                    tokens = Math.min(capacity, remaining);
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            // Unparseable header: keep the local estimate.
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+        refilledAt = now;
+    }
+
+    private synchronized double availableTokens() {
+        refill();
+        return Math.max(0, tokens);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, RequestPriority priority, String outcome) {
+        return Counter.builder("astrokiddo.nasa.quota.requests")
+                .tag("priority", priority.tag())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Reservation {
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        void markSent() {
+            settled.set(true);
+        }
+
+        boolean settle() {
+            return settled.compareAndSet(false, true);
+        }
+    }
+}
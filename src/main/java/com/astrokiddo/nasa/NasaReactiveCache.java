@@ -1,73 +1,185 @@
 package com.astrokiddo.nasa;
 
-import com.astrokiddo.dto.ApodResponseDto;
-import com.astrokiddo.dto.ImageSearchResponseDto;
-import com.github.benmanes.caffeine.cache.Cache;
-import io.netty.handler.timeout.ReadTimeoutException;
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.resilience.Upstream;
+import com.astrokiddo.resilience.UpstreamPolicies;
+import com.astrokiddo.service.RequestPriority;
+import com.astrokiddo.service.SharedPriority;
+import com.astrokiddo.store.ImageSearchStore;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.PrematureCloseException;
-import reactor.util.retry.Retry;
+import reactor.util.context.Context;
 
 import java.time.Duration;
 import java.time.LocalDate;
-import java.util.concurrent.TimeoutException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Component
 public class NasaReactiveCache {
-    private final Cache<String, Mono<ApodResponseDto>> apodCache;
-    private final Cache<String, Mono<ImageSearchResponseDto>> imageSearchCache;
+    private static final Logger log = LoggerFactory.getLogger(NasaReactiveCache.class);
+
+    private final ErrorAwareCache<ApodResult> apodCache;
+    private final ErrorAwareCache<ImageSearchResult> imageSearchCache;
     private final ApodClient apodClient;
     private final NasaImageClient imageClient;
+    private final ImageSearchStore imageSearchStore;
+    private final UpstreamPolicies upstreamPolicies;
 
-    public NasaReactiveCache(Cache<String, Mono<ApodResponseDto>> apodCache,
-                             Cache<String, Mono<ImageSearchResponseDto>> imageSearchCache,
+    public NasaReactiveCache(AsyncCache<String, NasaCacheEntry<ApodResult>> apodCache,
+                             AsyncCache<String, NasaCacheEntry<ImageSearchResult>> imageSearchCache,
                              ApodClient apodClient,
-                             NasaImageClient imageClient) {
-        this.apodCache = apodCache;
-        this.imageSearchCache = imageSearchCache;
+                             NasaImageClient imageClient,
+                             ImageSearchStore imageSearchStore,
+                             UpstreamPolicies upstreamPolicies,
+                             NasaProperties nasaProperties,
+                             MeterRegistry meterRegistry) {
+        Duration refreshAfter = nasaProperties.getCache().getFallbackRefreshAfter();
+        this.apodCache = new ErrorAwareCache<>("nasaApod", apodCache, () -> ApodResult.EMPTY, refreshAfter, meterRegistry);
+        this.imageSearchCache = new ErrorAwareCache<>("nasaImageSearch", imageSearchCache, () -> ImageSearchResult.EMPTY,
+                refreshAfter, meterRegistry);
         this.apodClient = apodClient;
         this.imageClient = imageClient;
+        this.imageSearchStore = imageSearchStore;
+        this.upstreamPolicies = upstreamPolicies;
     }
 
-    public Mono<ApodResponseDto> getApod(LocalDate date) {
-        final String key = date.toString();
-        return apodCache.get(key, k ->
-                apodClient.apod(date)
-                        .timeout(Duration.ofSeconds(8))
-                        .retryWhen(Retry.backoff(2, Duration.ofMillis(300))
-                                .maxBackoff(Duration.ofSeconds(2))
-                                .jitter(0.2)
-                                .filter(this::isTransient))
-                        .onErrorReturn(new ApodResponseDto())
-                        .cache()
-        );
+    public Mono<ApodResult> getApod(LocalDate date) {
+        // ApodClient swallows its own failures into an empty response, which must not be cached as a real answer.
+        return apodCache.get(date.toString(), () -> apodClient.apod(date)
+                .filter(apod -> apod.getDate() != null)
+                .map(ApodResult::of));
     }
 
-    public Mono<ImageSearchResponseDto> searchImages(String q, String mediaType,
+    public Mono<ImageSearchResult> searchImages(String q, String mediaType,
                                                      Integer yearStart, Integer yearEnd) {
         final String key = buildKey(q, mediaType, yearStart, yearEnd);
-        return imageSearchCache.get(key, k ->
-                imageClient.searchImages(q, mediaType, yearStart, yearEnd)
-                        .timeout(Duration.ofSeconds(8))
-                        .retryWhen(Retry.backoff(2, Duration.ofMillis(300))
-                                .maxBackoff(Duration.ofSeconds(2))
-                                .jitter(0.2)
-                                .filter(this::isTransient))
-                        .onErrorReturn(new ImageSearchResponseDto())
-                        .cache()
-        );
-    }
-
-    private boolean isTransient(Throwable t) {
-        return t instanceof ReadTimeoutException
-                || t instanceof TimeoutException
-                || t instanceof PrematureCloseException
-                || (t.getCause() != null && isTransient(t.getCause()));
+        return imageSearchCache.get(key, () -> imageSearchStore.find(key)
+                .switchIfEmpty(upstreamPolicies.hedged(Upstream.NASA_IMAGES,
+                                () -> imageClient.searchImages(q, mediaType, yearStart, yearEnd))
+                        .doOnNext(response -> imageSearchStore.saveAsync(key, response))));
     }
 
     private String buildKey(String q, String mediaType, Integer y1, Integer y2) {
         return (q == null ? "" : q.trim().toLowerCase()) + "|mt=" + (mediaType == null ? "" : mediaType)
                 + "|y1=" + (y1 == null ? "" : y1) + "|y2=" + (y2 == null ? "" : y2);
     }
+
+    /**
+     * Caches upstream responses, storing failures as short-lived fallback entries. A fallback that has been
+     * served for longer than {@code refreshAfter} is reloaded in the background, one refresh per key at a time.
+     */
+    private final class ErrorAwareCache<T> {
+        private final String name;
+        private final AsyncCache<String, NasaCacheEntry<T>> cache;
+        private final Supplier<T> emptyValue;
+        private final Duration refreshAfter;
+        private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+        private final Map<String, SharedPriority> loadPriorities = new ConcurrentHashMap<>();
+        private final Counter fallbacksStored;
+        private final Counter fallbacksServed;
+        private final Counter fallbacksRecovered;
+
+        ErrorAwareCache(String name, AsyncCache<String, NasaCacheEntry<T>> cache, Supplier<T> emptyValue,
+                        Duration refreshAfter, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.cache = cache;
+            this.emptyValue = emptyValue;
+            this.refreshAfter = refreshAfter;
+            this.fallbacksStored = fallbackCounter(meterRegistry, "stored");
+            this.fallbacksServed = fallbackCounter(meterRegistry, "served");
+            this.fallbacksRecovered = fallbackCounter(meterRegistry, "recovered");
+            Gauge.builder("astrokiddo.nasa.cache.fallback.entries", this, ErrorAwareCache::countFallbacks)
+                    .tag("cache", name)
+                    .register(meterRegistry);
+        }
+
+        Mono<T> get(String key, Supplier<Mono<T>> fetch) {
+            // Cancellation is suppressed so a caller giving up does not abort the shared load for everyone else.
+            // The load runs in the first caller's context, with a shared priority that interactive joiners raise.
+            return Mono.deferContextual(ctx -> Mono.fromFuture(() -> {
+                        boolean[] started = {false};
+                        CompletableFuture<NasaCacheEntry<T>> future = cache.get(key, (k, executor) -> {
+                            started[0] = true;
+                            SharedPriority priority = SharedPriority.startedBy(ctx);
+                            loadPriorities.put(k, priority);
+                            return load(fetch)
+                                    .contextWrite(priority.bind())
+                                    .contextWrite(Context.of(ctx))
+                                    .doFinally(signal -> loadPriorities.remove(k, priority))
+                                    .toFuture();
+                        });
+                        if (!started[0]) {
+                            SharedPriority priority = loadPriorities.get(key);
+                            if (priority != null) {
+                                priority.join(ctx);
+                            }
+                        }
+                        return future;
+                    }, true))
+                    .doOnNext(entry -> {
+                        if (entry.fallback()) {
+                            fallbacksServed.increment();
+                            if (entry.age().compareTo(refreshAfter) >= 0) {
+                                refresh(key, fetch);
+                            }
+                        }
+                    })
+                    .map(NasaCacheEntry::value);
+        }
+
+        private Mono<NasaCacheEntry<T>> load(Supplier<Mono<T>> fetch) {
+            // Timeouts and retries are applied once, inside the clients' upstream policies.
+            return Mono.defer(fetch)
+                    .map(NasaCacheEntry::success)
+                    .onErrorResume(e -> {
+                        log.warn("NASA {} lookup failed, caching fallback: {}", name, e.toString());
+                        return Mono.empty();
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        fallbacksStored.increment();
+                        return NasaCacheEntry.fallback(emptyValue.get());
+                    }));
+        }
+
+        private void refresh(String key, Supplier<Mono<T>> fetch) {
+            if (!refreshing.add(key)) {
+                return;
+            }
+            // A failed refresh stores a new fallback, which also restarts the refreshAfter clock for this key.
+            load(fetch)
+                    .contextWrite(RequestPriority.background())
+                    .doFinally(signal -> refreshing.remove(key))
+                    .subscribe(entry -> {
+                        if (!entry.fallback()) {
+                            fallbacksRecovered.increment();
+                        }
+                        cache.put(key, CompletableFuture.completedFuture(entry));
+                    });
+        }
+
+        private Counter fallbackCounter(MeterRegistry meterRegistry, String event) {
+            return Counter.builder("astrokiddo.nasa.cache.fallbacks")
+                    .tag("cache", name)
+                    .tag("event", event)
+                    .register(meterRegistry);
+        }
+
+        private double countFallbacks() {
+            return cache.asMap().values().stream()
+                    .filter(future -> future.isDone() && !future.isCompletedExceptionally())
+                    .map(CompletableFuture::join)
+                    .filter(entry -> entry != null && entry.fallback())
+                    .count();
+        }
+    }
 }
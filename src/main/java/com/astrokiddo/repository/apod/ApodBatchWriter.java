@@ -0,0 +1,73 @@
+package com.astrokiddo.repository.apod;
+
+import com.astrokiddo.entity.apod.Apod;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Inserts APODs as one multi-row statement. Dates that are already stored are left untouched, and only the
+ * newly inserted rows are returned.
+ */
+@Component
+public class ApodBatchWriter {
+
+    private static final String COLUMNS = "apod_date, title, explanation, media_type, url, hdurl, thumbnail_url, "
+            + "copyright, service_version, tts_audio_url";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    public ApodBatchWriter(R2dbcEntityTemplate template) {
+        this.databaseClient = template.getDatabaseClient();
+        this.converter = template.getConverter();
+    }
+
+    public Flux<Apod> insertMissing(List<Apod> apods) {
+        if (apods.isEmpty()) {
+            return Flux.empty();
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO apods (").append(COLUMNS).append(") VALUES ");
+        for (int i = 0; i < apods.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:date").append(i)
+                    .append(", :title").append(i)
+                    .append(", :explanation").append(i)
+                    .append(", :mediaType").append(i)
+                    .append(", :url").append(i)
+                    .append(", :hdUrl").append(i)
+                    .append(", :thumbnailUrl").append(i)
+                    .append(", :copyright").append(i)
+                    .append(", :serviceVersion").append(i)
+                    .append(", :ttsAudioUrl").append(i)
+                    .append(")");
+        }
+        sql.append(" ON CONFLICT (apod_date) DO NOTHING RETURNING *");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < apods.size(); i++) {
+            Apod apod = apods.get(i);
+            spec = spec.bind("date" + i, apod.getApodDate());
+            spec = bindNullable(spec, "title" + i, apod.getTitle());
+            spec = bindNullable(spec, "explanation" + i, apod.getExplanation());
+            spec = bindNullable(spec, "mediaType" + i, apod.getMediaType());
+            spec = bindNullable(spec, "url" + i, apod.getUrl());
+            spec = bindNullable(spec, "hdUrl" + i, apod.getHdUrl());
+            spec = bindNullable(spec, "thumbnailUrl" + i, apod.getThumbnailUrl());
+            spec = bindNullable(spec, "copyright" + i, apod.getCopyright());
+            spec = bindNullable(spec, "serviceVersion" + i, apod.getServiceVersion());
+            spec = bindNullable(spec, "ttsAudioUrl" + i, apod.getTtsAudioUrl());
+        }
+        return spec.map((row, metadata) -> converter.read(Apod.class, row, metadata)).all();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+}
@@ -2,6 +2,7 @@ package com.astrokiddo.repository.apod;
 
 import com.astrokiddo.entity.apod.Apod;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
@@ -11,6 +12,19 @@ import java.time.LocalDate;
 
 public interface ApodRepository extends ReactiveCrudRepository<Apod, Long> {
     Mono<Apod> findByApodDate(LocalDate apodDate);
+    Mono<Long> countByApodDateBetween(LocalDate start, LocalDate end);
+    /**
+     * Reads only the key columns, leaving the text fields unset.
+     */
+    @Query("SELECT id, apod_date, updated_at FROM apods WHERE apod_date = :apodDate")
+    Mono<Apod> findVersionByApodDate(LocalDate apodDate);
+    @Modifying
+    @Query("UPDATE apods SET tts_audio_url = :ttsAudioUrl, updated_at = NOW() WHERE id = :id")
+    Mono<Integer> updateTtsAudioUrl(Long id, String ttsAudioUrl);
     @Query("SELECT * FROM apods ORDER BY apod_date DESC LIMIT :#{#pageable.pageSize} OFFSET :#{#pageable.offset}")
     Flux<Apod> findAllByOrderByApodDateDesc(Pageable pageable);
+    @Query("SELECT * FROM apods ORDER BY apod_date DESC LIMIT :limit")
+    Flux<Apod> findLatest(int limit);
+    @Query("SELECT * FROM apods WHERE apod_date < :before ORDER BY apod_date DESC LIMIT :limit")
+    Flux<Apod> findLatestBefore(LocalDate before, int limit);
 }
\ No newline at end of file
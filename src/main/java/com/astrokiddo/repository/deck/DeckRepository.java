@@ -1,9 +1,16 @@
 package com.astrokiddo.repository.deck;
 
 import com.astrokiddo.entity.deck.Deck;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 public interface DeckRepository extends ReactiveCrudRepository<Deck, Long> {
     Mono<Deck> findByDeckKey(String deckKey);
+    @Modifying
+    @Query("UPDATE decks SET updated_at = :updatedAt WHERE id = :id")
+    Mono<Integer> touch(Long id, Instant updatedAt);
 }
@@ -0,0 +1,47 @@
+package com.astrokiddo.repository.deck;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+/**
+ * Deletes expired decks in small batches walked in (expires_at, id) order, so each batch is an
+ * index range scan on idx_decks_expires_at. Slides go with their deck through ON DELETE CASCADE.
+ */
+@Component
+public class ExpiredDeckDeleter {
+
+    private static final String DELETE_BATCH = """
+            DELETE FROM decks d
+            WHERE d.id IN (
+                SELECT id FROM decks
+                WHERE expires_at < :cutoff
+                  AND (expires_at > :afterExpiresAt OR (expires_at = :afterExpiresAt AND id > :afterId))
+                ORDER BY expires_at, id
+                LIMIT :limit)
+            RETURNING d.id, d.expires_at, (SELECT count(*) FROM slides s WHERE s.deck_id = d.id) AS slide_count""";
+
+    private final DatabaseClient databaseClient;
+
+    public ExpiredDeckDeleter(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<DeletedDeck> deleteBatch(Instant cutoff, Instant afterExpiresAt, Long afterId, int limit) {
+        return databaseClient.sql(DELETE_BATCH)
+                .bind("cutoff", cutoff)
+                .bind("afterExpiresAt", afterExpiresAt)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(row -> new DeletedDeck(
+                        row.get("id", Long.class),
+                        row.get("expires_at", Instant.class),
+                        row.get("slide_count", Long.class)))
+                .all();
+    }
+
+    public record DeletedDeck(Long id, Instant expiresAt, long slideCount) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.astrokiddo.repository.deck;
+
+import com.astrokiddo.entity.deck.Deck;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.codec.Json;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Turns a stored deck into its {@link LessonDeck} model. Slides come from the slides table; decks stored before
+ * slides had their own table fall back to the slides kept in {@code content_json}, with missing UUIDs filled in.
+ */
+@Component
+public class LessonDeckMapper {
+
+    private final ObjectMapper objectMapper;
+
+    public LessonDeckMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public LessonDeck toModel(Deck deck) {
+        List<Slide> slides = deck.getSlides() == null ? List.of() : deck.getSlides().stream()
+                .sorted(Comparator.comparingInt(a -> a.getPositionIndex() != null ? a.getPositionIndex() : 0))
+                .map(this::toSlideModel)
+                .toList();
+        return toModel(deck, slides);
+    }
+
+    /**
+     * Builds the model from the deck's columns and its already ordered {@code slides}; the deck's own slide
+     * entities are ignored.
+     */
+    public LessonDeck toModel(Deck deck, List<Slide> slides) {
+        LessonDeck model = new LessonDeck(deck.getTopic(), deck.getGradeLevel(), deck.getLocale());
+        model.setId("deck-" + deck.getId());
+        model.setCreatedAt(deck.getCreatedAt());
+        model.setUpdatedAt(deck.getUpdatedAt());
+        model.setExpiresAt(deck.getExpiresAt());
+        boolean hasSlides = !slides.isEmpty();
+        if (hasSlides) {
+            model.setSlides(slides);
+        }
+        Json contentJson = deck.getContentJson();
+        byte[] content = contentJson != null ? contentJson.asArray() : null;
+        if (content == null || content.length == 0) {
+            return model;
+        }
+        try {
+            LessonDeck stored = objectMapper.readValue(content, LessonDeck.class);
+            if (stored.getEnrichment() != null) {
+                model.setEnrichment(stored.getEnrichment());
+            }
+            if (!hasSlides && stored.getSlides() != null && !stored.getSlides().isEmpty()) {
+                stored.getSlides().forEach(s -> {
+                    if (s.getSlideUuid() == null) {
+                        s.setSlideUuid(UUID.randomUUID());
+                    }
+                });
+                model.setSlides(stored.getSlides());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse deck JSON for id " + deck.getId(), e);
+        }
+        return model;
+    }
+
+    public Slide toSlideModel(com.astrokiddo.entity.deck.Slide slide) {
+        Slide model = new Slide();
+        model.setSlideUuid(slide.getSlideUuid());
+        model.setType(slide.getType());
+        model.setTitle(slide.getTitle());
+        model.setText(slide.getText());
+        model.setImageUrl(slide.getImageUrl());
+        model.setAttribution(slide.getAttribution());
+        model.setTtsAudioUrl(slide.getTtsAudioUrl());
+        return model;
+    }
+}
@@ -0,0 +1,104 @@
+package com.astrokiddo.repository.deck;
+
+import com.astrokiddo.entity.deck.Deck;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.model.Slide;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.codec.Json;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Loads a deck together with its ordered slides in a single statement, aggregating the slides
+ * into a JSON array shaped like {@link Slide} so it can be decoded without intermediate entities.
+ */
+@Component
+public class LessonDeckReader {
+
+    private static final String SELECT_HYDRATED = """
+            SELECT d.id, d.deck_key, d.topic, d.grade_level, d.locale, d.content_json, d.created_at, d.updated_at, d.expires_at,
+                   COALESCE((SELECT json_agg(json_build_object(
+                                    'slideUuid', s.slide_uuid,
+                                    'type', s.type,
+                                    'title', s.title,
+                                    'text', s.text,
+                                    'imageUrl', s.image_url,
+                                    'attribution', s.attribution,
+                                    'ttsAudioUrl', s.tts_audio_url) ORDER BY s.position_index)
+                             FROM slides s
+                             WHERE s.deck_id = d.id), '[]'::json) AS slides
+            FROM decks d
+            """;
+
+    private static final TypeReference<List<Slide>> SLIDE_LIST = new TypeReference<>() {};
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final LessonDeckMapper lessonDeckMapper;
+
+    public LessonDeckReader(DatabaseClient databaseClient, ObjectMapper objectMapper,
+                            LessonDeckMapper lessonDeckMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.lessonDeckMapper = lessonDeckMapper;
+    }
+
+    public Mono<HydratedDeck> findById(Long id) {
+        return databaseClient.sql(SELECT_HYDRATED + "WHERE d.id = :id")
+                .bind("id", id)
+                .map(this::readRow)
+                .one()
+                .flatMap(this::decode);
+    }
+
+    public Mono<HydratedDeck> findByDeckKey(String deckKey) {
+        return databaseClient.sql(SELECT_HYDRATED + "WHERE d.deck_key = :deckKey")
+                .bind("deckKey", deckKey)
+                .map(this::readRow)
+                .one()
+                .flatMap(this::decode);
+    }
+
+    private DeckRow readRow(Readable row) {
+        Deck deck = new Deck();
+        deck.setId(row.get("id", Long.class));
+        deck.setDeckKey(row.get("deck_key", String.class));
+        deck.setTopic(row.get("topic", String.class));
+        deck.setGradeLevel(row.get("grade_level", String.class));
+        deck.setLocale(row.get("locale", String.class));
+        deck.setContentJson(row.get("content_json", Json.class));
+        deck.setCreatedAt(row.get("created_at", Instant.class));
+        deck.setUpdatedAt(row.get("updated_at", Instant.class));
+        deck.setExpiresAt(row.get("expires_at", Instant.class));
+        Json slides = row.get("slides", Json.class);
+        return new DeckRow(deck, slides != null ? slides.asArray() : null);
+    }
+
+    private Mono<HydratedDeck> decode(DeckRow row) {
+        return Mono.fromCallable(() -> new HydratedDeck(row.deck().getId(), row.deck().getDeckKey(), toModel(row)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private LessonDeck toModel(DeckRow row) {
+        try {
+            List<Slide> slides = row.slides() != null ? objectMapper.readValue(row.slides(), SLIDE_LIST) : List.of();
+            return lessonDeckMapper.toModel(row.deck(), slides);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse deck JSON for id " + row.deck().getId(), e);
+        }
+    }
+
+    public record HydratedDeck(Long id, String deckKey, LessonDeck deck) {
+    }
+
+    private record DeckRow(Deck deck, byte[] slides) {
+    }
+}
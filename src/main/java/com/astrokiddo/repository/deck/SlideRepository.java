@@ -1,14 +1,18 @@
 package com.astrokiddo.repository.deck;
 
 import com.astrokiddo.entity.deck.Slide;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface SlideRepository extends ReactiveCrudRepository<Slide, Long> {
     Mono<Slide> findBySlideUuid(UUID slideUuid);
     Flux<Slide> findByDeckIdOrderByPositionIndexAsc(Long deckId);
+    @Query("SELECT * FROM slides WHERE deck_id IN (:deckIds) ORDER BY deck_id, position_index")
+    Flux<Slide> findByDeckIdIn(Collection<Long> deckIds);
     Mono<Void> deleteByDeckId(Long deckId);
 }
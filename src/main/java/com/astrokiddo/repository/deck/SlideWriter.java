@@ -0,0 +1,104 @@
+package com.astrokiddo.repository.deck;
+
+import com.astrokiddo.entity.deck.Slide;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a deck's slides as one multi-row upsert keyed by (deck_id, position_index).
+ * Existing rows keep their slide UUID, and keep their TTS audio while the slide text is unchanged;
+ * positions beyond the new slide count are deleted.
+ */
+@Component
+public class SlideWriter {
+
+    private static final String COLUMNS = "deck_id, slide_uuid, type, title, text, image_url, attribution, "
+            + "position_index, tts_audio_url, tts_text_hash, created_at, updated_at";
+
+    private static final String ON_CONFLICT = """
+             ON CONFLICT (deck_id, position_index) DO UPDATE SET
+                type = EXCLUDED.type,
+                title = EXCLUDED.title,
+                text = EXCLUDED.text,
+                image_url = EXCLUDED.image_url,
+                attribution = EXCLUDED.attribution,
+                tts_audio_url = CASE WHEN slides.text IS NOT DISTINCT FROM EXCLUDED.text
+                                     THEN slides.tts_audio_url ELSE EXCLUDED.tts_audio_url END,
+                tts_text_hash = CASE WHEN slides.text IS NOT DISTINCT FROM EXCLUDED.text
+                                     THEN slides.tts_text_hash ELSE EXCLUDED.tts_text_hash END,
+                updated_at = EXCLUDED.updated_at
+            RETURNING *""";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    public SlideWriter(R2dbcEntityTemplate template) {
+        this.databaseClient = template.getDatabaseClient();
+        this.converter = template.getConverter();
+    }
+
+    public Mono<List<Slide>> replaceSlides(Long deckId, List<Slide> slides) {
+        Mono<Void> deleteLeftovers = databaseClient
+                .sql("DELETE FROM slides WHERE deck_id = :deckId AND position_index >= :count")
+                .bind("deckId", deckId)
+                .bind("count", slides.size())
+                .then();
+        if (slides.isEmpty()) {
+            return deleteLeftovers.thenReturn(List.of());
+        }
+        return upsert(deckId, slides)
+                .flatMap(saved -> deleteLeftovers.thenReturn(saved));
+    }
+
+    private Mono<List<Slide>> upsert(Long deckId, List<Slide> slides) {
+        StringBuilder sql = new StringBuilder("INSERT INTO slides (").append(COLUMNS).append(") VALUES ");
+        for (int i = 0; i < slides.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:deckId, :uuid").append(i)
+                    .append(", :type").append(i)
+                    .append(", :title").append(i)
+                    .append(", :text").append(i)
+                    .append(", :imageUrl").append(i)
+                    .append(", :attribution").append(i)
+                    .append(", :position").append(i)
+                    .append(", :ttsAudioUrl").append(i)
+                    .append(", :ttsTextHash").append(i)
+                    .append(", :now, :now)");
+        }
+        sql.append(ON_CONFLICT);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("deckId", deckId)
+                .bind("now", Instant.now());
+        for (int i = 0; i < slides.size(); i++) {
+            Slide slide = slides.get(i);
+            spec = spec.bind("uuid" + i, slide.getSlideUuid() != null ? slide.getSlideUuid() : UUID.randomUUID());
+            spec = bindNullable(spec, "type" + i, slide.getType() != null ? slide.getType().name() : null);
+            spec = bindNullable(spec, "title" + i, slide.getTitle());
+            spec = bindNullable(spec, "text" + i, slide.getText());
+            spec = bindNullable(spec, "imageUrl" + i, slide.getImageUrl());
+            spec = bindNullable(spec, "attribution" + i, slide.getAttribution());
+            spec = spec.bind("position" + i, slide.getPositionIndex() != null ? slide.getPositionIndex() : i);
+            spec = bindNullable(spec, "ttsAudioUrl" + i, slide.getTtsAudioUrl());
+            spec = bindNullable(spec, "ttsTextHash" + i, slide.getTtsTextHash());
+        }
+        return spec.map((row, metadata) -> converter.read(Slide.class, row, metadata))
+                .all()
+                .sort(Comparator.comparingInt(s -> s.getPositionIndex() != null ? s.getPositionIndex() : 0))
+                .collectList();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+}
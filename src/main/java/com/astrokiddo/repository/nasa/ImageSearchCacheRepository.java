@@ -0,0 +1,62 @@
+package com.astrokiddo.repository.nasa;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Second-level store for compressed NASA image search responses, shared by every replica.
+ */
+@Component
+public class ImageSearchCacheRepository {
+
+    private static final String UPSERT = """
+            INSERT INTO nasa_image_search_cache (cache_key, payload, fetched_at, expires_at)
+            VALUES (:cacheKey, :payload, :fetchedAt, :expiresAt)
+            ON CONFLICT (cache_key) DO UPDATE SET
+                payload = EXCLUDED.payload,
+                fetched_at = EXCLUDED.fetched_at,
+                expires_at = EXCLUDED.expires_at""";
+
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM nasa_image_search_cache
+            WHERE cache_key IN (
+                SELECT cache_key FROM nasa_image_search_cache
+                WHERE expires_at < :now
+                ORDER BY expires_at
+                LIMIT :limit)""";
+
+    private final DatabaseClient databaseClient;
+
+    public ImageSearchCacheRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<byte[]> findPayload(String cacheKey, Instant now) {
+        return databaseClient.sql("SELECT payload FROM nasa_image_search_cache WHERE cache_key = :cacheKey AND expires_at > :now")
+                .bind("cacheKey", cacheKey)
+                .bind("now", now)
+                .map(row -> row.get("payload", byte[].class))
+                .one();
+    }
+
+    public Mono<Long> upsert(String cacheKey, byte[] payload, Instant fetchedAt, Instant expiresAt) {
+        return databaseClient.sql(UPSERT)
+                .bind("cacheKey", cacheKey)
+                .bind("payload", payload)
+                .bind("fetchedAt", fetchedAt)
+                .bind("expiresAt", expiresAt)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteExpired(Instant now, int limit) {
+        return databaseClient.sql(DELETE_EXPIRED)
+                .bind("now", now)
+                .bind("limit", limit)
+                .fetch()
+                .rowsUpdated();
+    }
+}
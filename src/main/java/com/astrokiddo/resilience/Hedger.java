@@ -0,0 +1,128 @@
+package com.astrokiddo.resilience;
+
+import com.astrokiddo.config.ResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Hedges one upstream: if the first attempt has not answered after the configured latency percentile, an
+ * identical second attempt is started and the first value wins. Hedges draw on a {@link RatioBudget} so they
+ * never exceed the configured share of traffic.
+ */
+final class Hedger {
+    private final ResilienceProperties.HedgeSettings settings;
+    private final RatioBudget budget;
+    private final long[] samples;
+    private int sampleCount;
+    private int nextSample;
+    private volatile long delayNanos;
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter wins;
+    private final Counter denied;
+
+    Hedger(String upstream, ResilienceProperties.HedgeSettings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        int window = Math.max(settings.getMinSamples(), settings.getSampleWindow());
+        this.samples = new long[Math.max(1, window)];
+        this.budget = new RatioBudget(settings.getMaxRatio(), Math.max(1, settings.getMaxRatio() * window));
+        this.delayNanos = clamp(settings.getInitialDelay().toNanos());
+        this.requests = hedgeCounter(meterRegistry, "astrokiddo.upstream.hedge.requests", upstream);
+        this.hedges = hedgeCounter(meterRegistry, "astrokiddo.upstream.hedge.sent", upstream);
+        this.wins = hedgeCounter(meterRegistry, "astrokiddo.upstream.hedge.wins", upstream);
+        this.denied = hedgeCounter(meterRegistry, "astrokiddo.upstream.hedge.denied", upstream);
+        Gauge.builder("astrokiddo.upstream.hedge.delay", this, hedger -> hedger.delayNanos / 1e6)
+                .description("Current hedge threshold")
+                .baseUnit("milliseconds")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            requests.increment();
+            budget.onRequest();
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Mono<Attempt<T>> primary = attempt(call, false)
+                    .doOnError(e -> primaryFailed.tryEmitEmpty());
+            // A primary that fails before the threshold fails the call; it is not turned into a retry.
+            Mono<Attempt<T>> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                    .takeUntilOther(primaryFailed.asMono())
+                    .flatMap(tick -> {
+                        if (!budget.tryAcquire()) {
+                            denied.increment();
+                            return Mono.empty();
+                        }
+                        hedges.increment();
+                        return attempt(call, true);
+                    });
+            return Mono.firstWithValue(primary, hedge)
+                    .doOnNext(winner -> {
+                        if (winner.hedge()) {
+                            wins.increment();
+                        }
+                    })
+                    .map(Attempt::value)
+                    .onErrorMap(NoSuchElementException.class, Hedger::firstCause);
+        });
+    }
+
+    private <T> Mono<Attempt<T>> attempt(Supplier<Mono<T>> call, boolean hedge) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get()
+                    .map(value -> new Attempt<>(value, hedge))
+                    .doFinally(signal -> {
+                        // A cancelled attempt lost the race; its elapsed time is still a lower bound on latency.
+                        if (signal == SignalType.ON_COMPLETE || signal == SignalType.CANCEL) {
+                            record(System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private synchronized void record(long nanos) {
+        samples[nextSample] = nanos;
+        nextSample = (nextSample + 1) % samples.length;
+        sampleCount = Math.min(samples.length, sampleCount + 1);
+        if (sampleCount >= settings.getMinSamples()) {
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(settings.getPercentile() * sorted.length) - 1;
+            delayNanos = clamp(sorted[Math.max(0, Math.min(sorted.length - 1, index))]);
+        }
+    }
+
+    private long clamp(long nanos) {
+        return Math.max(settings.getMinDelay().toNanos(), Math.min(settings.getMaxDelay().toNanos(), nanos));
+    }
+
+    private static Throwable firstCause(NoSuchElementException e) {
+        // firstWithValue reports "no value" caused by the attempts' errors; surface the primary's error.
+        if (e.getCause() != null) {
+            for (Throwable cause : Exceptions.unwrapMultiple(e.getCause())) {
+                if (!(cause instanceof NoSuchElementException)) {
+                    return cause;
+                }
+            }
+        }
+        return e;
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String name, String upstream) {
+        return Counter.builder(name).tag("upstream", upstream).register(meterRegistry);
+    }
+
+    private record Attempt<T>(T value, boolean hedge) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.astrokiddo.resilience;
+
+/**
+ * Allows extra work (hedges, retries) as a capped share of normal requests: every request deposits
+ * {@code ratio} credit up to {@code maxCredit}, and every extra attempt must withdraw a whole credit.
+ */
+final class RatioBudget {
+    private final double ratio;
+    private final double maxCredit;
+    private double credit;
+
+    RatioBudget(double ratio, double maxCredit) {
+        this.ratio = Math.max(0, ratio);
+        this.maxCredit = Math.max(1, maxCredit);
+        this.credit = this.maxCredit;
+    }
+
+    synchronized void onRequest() {
+        credit = Math.min(maxCredit, credit + ratio);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (credit < 1) {
+            return false;
+        }
+        credit -= 1;
+        return true;
+    }
+
+    synchronized double available() {
+        return credit;
+    }
+}
@@ -0,0 +1,21 @@
+package com.astrokiddo.resilience;
+
+/**
+ * External services that get their own resilience policy.
+ */
+public enum Upstream {
+    NASA_APOD("nasa-apod"),
+    NASA_IMAGES("nasa-images"),
+    CLOUDFLARE_AI("cloudflare-ai"),
+    CLOUDFLARE_TTS("cloudflare-tts");
+
+    private final String id;
+
+    Upstream(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+}
@@ -0,0 +1,15 @@
+package com.astrokiddo.resilience;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control in front of an upstream, such as a rate limit. The gate runs before each attempt's timeout and
+ * circuit breaker, so time spent waiting for admission is not counted against the upstream.
+ */
+public interface UpstreamGate {
+
+    /**
+     * Returns {@code attempt} deferred until it may be sent, or an error if it is rejected.
+     */
+    <T> Mono<T> admit(Mono<T> attempt);
+}
@@ -0,0 +1,188 @@
+package com.astrokiddo.resilience;
+
+import com.astrokiddo.config.ResilienceProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The single resilience policy for each external upstream: a per-attempt timeout, a circuit breaker and retries.
+ * Callers apply it once with {@link #policy(Upstream)} and add no timeouts or retries of their own. An
+ * {@link UpstreamGate} passed to {@link #policy(Upstream, UpstreamGate)} admits each attempt before its timeout
+ * and breaker start, so local queueing is never mistaken for a slow or failing upstream.
+ * <p>
+ * A breaker opens on a high failure or slow-call rate and then rejects calls immediately with
+ * {@link CallNotPermittedException}, which the callers' existing fallbacks absorb. Breaker state is published as
+ * {@code resilience4j.circuitbreaker.*}. Retries are limited per call and also by a retry budget per upstream,
+ * shared by the whole process: every call earns a fraction of a retry, so during an outage retries add at most
+ * that fraction of extra load instead of multiplying it. Upstreams with hedging enabled also get a
+ * {@link Hedger} for tail latency.
+ */
+@Component
+public class UpstreamPolicies {
+    private static final Logger log = LoggerFactory.getLogger(UpstreamPolicies.class);
+
+    private final Map<Upstream, Policy> policies = new EnumMap<>(Upstream.class);
+    private final Map<Upstream, Hedger> hedgers = new EnumMap<>(Upstream.class);
+
+    public UpstreamPolicies(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        for (Upstream upstream : Upstream.values()) {
+            ResilienceProperties.UpstreamSettings settings = properties.upstream(upstream.id());
+            CircuitBreaker breaker = null;
+            if (settings.getCircuitBreaker().isEnabled()) {
+                breaker = registry.circuitBreaker(upstream.id(), circuitBreakerConfig(settings.getCircuitBreaker()));
+                breaker.getEventPublisher().onStateTransition(event ->
+                        log.warn("Circuit breaker {}: {}", upstream.id(), event.getStateTransition()));
+            }
+            policies.put(upstream, new Policy(upstream.id(), settings, breaker, meterRegistry));
+            if (settings.getHedge().isEnabled()) {
+                hedgers.put(upstream, new Hedger(upstream.id(), settings.getHedge(), meterRegistry));
+            }
+        }
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    }
+
+    public <T> Function<Mono<T>, Mono<T>> policy(Upstream upstream) {
+        return policy(upstream, null);
+    }
+
+    public <T> Function<Mono<T>, Mono<T>> policy(Upstream upstream, UpstreamGate gate) {
+        Policy policy = policies.get(upstream);
+        return call -> policy.apply(call, gate);
+    }
+
+    /**
+     * Runs {@code call}, racing it against a second identical call if it is slow and hedging is enabled.
+     */
+    public <T> Mono<T> hedged(Upstream upstream, Supplier<Mono<T>> call) {
+        Hedger hedger = hedgers.get(upstream);
+        return hedger == null ? Mono.defer(call) : hedger.execute(call);
+    }
+
+    private static CircuitBreakerConfig circuitBreakerConfig(ResilienceProperties.CircuitBreakerSettings settings) {
+        return CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.getFailureRateThreshold())
+                .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(settings.getSlowCallDuration())
+                .slidingWindowSize(settings.getSlidingWindowSize())
+                .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                .recordException(UpstreamPolicies::isUpstreamFailure)
+                .build();
+    }
+
+    /**
+     * Client errors say nothing about upstream health, and locally rejected calls never reached it.
+     */
+    static boolean isUpstreamFailure(Throwable t) {
+        if (t instanceof WebClientResponseException e) {
+            return e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == 429;
+        }
+        return !(t instanceof ResponseStatusException);
+    }
+
+    /**
+     * Timeouts, broken connections and gateway errors are worth another attempt; rejections by the breaker or
+     * the quota governor, 429s and other HTTP errors are not.
+     */
+    static boolean isRetryable(Throwable t) {
+        if (t instanceof CallNotPermittedException || t instanceof ResponseStatusException) {
+            return false;
+        }
+        if (t instanceof WebClientResponseException e) {
+            int status = e.getStatusCode().value();
+            return status == 502 || status == 503 || status == 504;
+        }
+        return t instanceof TimeoutException
+                || t instanceof io.netty.handler.timeout.TimeoutException
+                || t instanceof PrematureCloseException
+                || t instanceof IOException
+                || (t.getCause() != null && t.getCause() != t && isRetryable(t.getCause()));
+    }
+
+    private static final class Policy {
+        private final ResilienceProperties.UpstreamSettings settings;
+        private final CircuitBreaker breaker;
+        private final RatioBudget retryBudget;
+        private final Counter retries;
+        private final Counter budgetExhausted;
+
+        Policy(String upstream, ResilienceProperties.UpstreamSettings settings, CircuitBreaker breaker,
+               MeterRegistry meterRegistry) {
+            ResilienceProperties.RetrySettings retry = settings.getRetry();
+            this.settings = settings;
+            this.breaker = breaker;
+            this.retryBudget = new RatioBudget(retry.getBudgetRatio(), retry.getBudgetMaxCredit());
+            this.retries = Counter.builder("astrokiddo.upstream.retries")
+                    .tag("upstream", upstream)
+                    .register(meterRegistry);
+            this.budgetExhausted = Counter.builder("astrokiddo.upstream.retry.budget.exhausted")
+                    .description("Retryable failures not retried because the retry budget was empty")
+                    .tag("upstream", upstream)
+                    .register(meterRegistry);
+            Gauge.builder("astrokiddo.upstream.retry.budget", retryBudget, RatioBudget::available)
+                    .description("Retries currently available to the upstream")
+                    .tag("upstream", upstream)
+                    .register(meterRegistry);
+        }
+
+        <T> Mono<T> apply(Mono<T> call, UpstreamGate gate) {
+            Mono<T> attempt = call.timeout(settings.getTimeout());
+            if (breaker != null) {
+                attempt = attempt.transformDeferred(CircuitBreakerOperator.of(breaker));
+            }
+            Mono<T> attempts = gate != null ? gate.admit(attempt) : attempt;
+            ResilienceProperties.RetrySettings retry = settings.getRetry();
+            return Mono.defer(() -> {
+                retryBudget.onRequest();
+                if (retry.getMaxAttempts() <= 1) {
+                    return attempts;
+                }
+                // Counted here because the backoff spec consults its filter before its own attempt limit,
+                // which would spend budget on failures that are never retried.
+                AtomicInteger failures = new AtomicInteger();
+                return attempts.retryWhen(Retry.backoff(retry.getMaxAttempts() - 1, retry.getInitialBackoff())
+                        .maxBackoff(retry.getMaxBackoff())
+                        .jitter(retry.getJitter())
+                        .filter(t -> failures.incrementAndGet() < retry.getMaxAttempts() && shouldRetry(t))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+            });
+        }
+
+        private boolean shouldRetry(Throwable t) {
+            if (!isRetryable(t)) {
+                return false;
+            }
+            if (!retryBudget.tryAcquire()) {
+                budgetExhausted.increment();
+                return false;
+            }
+            retries.increment();
+            return true;
+        }
+    }
+}
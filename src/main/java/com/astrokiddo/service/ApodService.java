@@ -1,10 +1,12 @@
 package com.astrokiddo.service;
 
 import com.astrokiddo.dto.ApodResponseDto;
+import com.astrokiddo.dto.CursorPageDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 public interface ApodService {
@@ -14,5 +16,22 @@ public interface ApodService {
 
     Mono<ApodResponseDto> getOrCreateApod(LocalDate date);
 
+    /**
+     * Version of the stored APOD for {@code date} (today if {@code null}), read without loading the row; empty if
+     * the date is not stored yet.
+     */
+    Mono<Version> getVersion(LocalDate date);
+
     Mono<Page<ApodResponseDto>> listApods(Pageable pageable);
+
+    Mono<CursorPageDto<ApodResponseDto>> listApodsByCursor(String cursor, int size, boolean includeTotal);
+
+    /**
+     * Stores every APOD from {@code start} to {@code end} that is not stored yet and returns how many were added.
+     * The range is clamped to {@code app.nasa.apod-min-date} and to the latest date NASA has published.
+     */
+    Mono<Long> backfillHistory(LocalDate start, LocalDate end);
+
+    record Version(LocalDate date, Instant updatedAt) {
+    }
 }
@@ -1,21 +1,42 @@
 package com.astrokiddo.service;
 
 import com.astrokiddo.entity.deck.Deck;
+import com.astrokiddo.entity.deck.Slide;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface DeckCrudService extends CrudService {
     Mono<Deck> saveOrUpdate(Deck deck);
+    Mono<Deck> upsertWithSlides(Deck deck, List<Slide> slides);
     Mono<Deck> findById(Long id);
     Mono<Page<Deck>> findAll(String topic,
                              String gradeLevel,
                              String locale,
                              String nasaSource,
+                             String search,
                              java.time.Instant createdAfter,
                              java.time.Instant createdBefore,
                              Pageable pageable);
+    Flux<Deck> findAllAfter(String topic,
+                            String gradeLevel,
+                            String locale,
+                            String nasaSource,
+                            java.time.Instant createdAfter,
+                            java.time.Instant createdBefore,
+                            java.time.Instant afterCreatedAt,
+                            Long afterId,
+                            int limit);
+    Mono<Long> count(String topic,
+                     String gradeLevel,
+                     String locale,
+                     String nasaSource,
+                     java.time.Instant createdAfter,
+                     java.time.Instant createdBefore);
     Mono<Deck> findByDeckKey(String deckKey);
+    Mono<java.time.Instant> findUpdatedAtById(Long id);
     Flux<Deck> findAll();
 }
@@ -1,21 +1,42 @@
 package com.astrokiddo.service;
 
+import com.astrokiddo.dto.BatchDeckResultDto;
+import com.astrokiddo.dto.CursorPageDto;
+import com.astrokiddo.dto.DeckGenerationEventDto;
 import com.astrokiddo.dto.GenerateDeckRequestDto;
 import com.astrokiddo.model.LessonDeck;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.List;
 
 public interface DeckService {
     Mono<LessonDeck> findOrGenerate(GenerateDeckRequestDto request);
+    Flux<DeckGenerationEventDto> streamGenerate(GenerateDeckRequestDto request);
+    Flux<BatchDeckResultDto> generateBatch(List<GenerateDeckRequestDto> requests);
+    Mono<Boolean> needsRefresh(GenerateDeckRequestDto request, Instant expiringBefore);
+    Mono<LessonDeck> regenerate(GenerateDeckRequestDto request);
     Mono<LessonDeck> getById(Long id);
+    Mono<LessonDeck> getById(Long id, Instant minUpdatedAt);
+    Mono<Instant> getLastModified(Long id);
     Mono<Page<LessonDeck>> listDecks(String topic,
                                      String gradeLevel,
                                      String locale,
                                      String nasaSource,
+                                     String search,
                                      Instant createdAfter,
                                      Instant createdBefore,
                                      Pageable pageable);
+    Mono<CursorPageDto<LessonDeck>> listDecksByCursor(String topic,
+                                                      String gradeLevel,
+                                                      String locale,
+                                                      String nasaSource,
+                                                      Instant createdAfter,
+                                                      Instant createdBefore,
+                                                      String cursor,
+                                                      int size,
+                                                      boolean includeTotal);
 }
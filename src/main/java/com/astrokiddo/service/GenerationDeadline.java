@@ -0,0 +1,51 @@
+package com.astrokiddo.service;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Per-request deadline for deck generation, carried in the Reactor context so that every stage
+ * can clamp its own timeout to the time that is left.
+ */
+public final class GenerationDeadline {
+    private static final String CONTEXT_KEY = GenerationDeadline.class.getName();
+
+    private GenerationDeadline() {
+    }
+
+    /**
+     * Sets the deadline unless an outer caller already did.
+     */
+    public static Function<Context, Context> withDefault(Duration budget) {
+        return ctx -> ctx.hasKey(CONTEXT_KEY) ? ctx : ctx.put(CONTEXT_KEY, Instant.now().plus(budget));
+    }
+
+    /**
+     * Like {@link #withDefault(Duration)}, picking the budget by the {@link RequestPriority} in the context.
+     */
+    public static Function<Context, Context> withDefault(Duration interactive, Duration background) {
+        return ctx -> withDefault(RequestPriority.get(ctx) == RequestPriority.BACKGROUND ? background : interactive)
+                .apply(ctx);
+    }
+
+    public static Function<Context, Context> at(Instant deadline) {
+        return ctx -> ctx.put(CONTEXT_KEY, deadline);
+    }
+
+    public static Optional<Instant> get(ContextView ctx) {
+        return ctx.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public static Duration remaining(ContextView ctx, Duration stageTimeout) {
+        return get(ctx)
+                .map(deadline -> Duration.between(Instant.now(), deadline))
+                .map(left -> left.isNegative() ? Duration.ZERO : left)
+                .filter(left -> left.compareTo(stageTimeout) < 0)
+                .orElse(stageTimeout);
+    }
+}
@@ -2,8 +2,15 @@ package com.astrokiddo.service;
 
 import com.astrokiddo.dto.GenerateDeckRequestDto;
 import com.astrokiddo.model.LessonDeck;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface LessonGeneratorService {
     Mono<LessonDeck> generate(GenerateDeckRequestDto req);
+
+    /**
+     * Emits the template deck as soon as the image search returns, followed by the enriched deck
+     * (same slide UUIDs) once AI enrichment succeeds.
+     */
+    Flux<LessonDeck> generateDrafts(GenerateDeckRequestDto req);
 }
@@ -0,0 +1,45 @@
+package com.astrokiddo.service;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Priority of the work an upstream call is made for, carried in the Reactor context. Calls default to
+ * {@link #INTERACTIVE}; scheduled and bulk work marks itself {@link #BACKGROUND} so rate-limited upstream
+ * budget is kept for users waiting on a response. Loads shared by several callers carry a {@link SharedPriority}
+ * instead, which an interactive caller can raise.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    static final String CONTEXT_KEY = RequestPriority.class.getName();
+
+    public static Function<Context, Context> background() {
+        return ctx -> ctx.put(CONTEXT_KEY, BACKGROUND);
+    }
+
+    public static RequestPriority get(ContextView ctx) {
+        Object value = ctx.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+        return value instanceof SharedPriority shared ? shared.current() : (RequestPriority) value;
+    }
+
+    /**
+     * Completes once the priority in {@code ctx} is interactive: immediately if it already is, when an interactive
+     * caller joins if it is a shared background load, and never for plain background work.
+     */
+    public static Mono<Void> raisedToInteractive(ContextView ctx) {
+        Object value = ctx.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+        if (value instanceof SharedPriority shared) {
+            return shared.whenInteractive();
+        }
+        return value == BACKGROUND ? Mono.never() : Mono.empty();
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,66 @@
+package com.astrokiddo.service;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Priority of a load shared by several callers. It starts with the priority of the caller that started the load
+ * and is raised to {@link RequestPriority#INTERACTIVE} as soon as an interactive caller joins, so a user is never
+ * queued behind background budget because a scheduled job happened to start the same load first. Loads started
+ * inside another shared load follow their parent when it is raised.
+ */
+public final class SharedPriority {
+    private final SharedPriority parent;
+    private final Sinks.Empty<Void> raised = Sinks.empty();
+    private volatile boolean interactive;
+
+    private SharedPriority(SharedPriority parent, boolean interactive) {
+        this.parent = parent;
+        this.interactive = interactive;
+    }
+
+    /**
+     * Creates the priority of a load started by a caller with context {@code ctx}.
+     */
+    public static SharedPriority startedBy(ContextView ctx) {
+        Object value = ctx.getOrDefault(RequestPriority.CONTEXT_KEY, RequestPriority.INTERACTIVE);
+        if (value instanceof SharedPriority parent) {
+            return new SharedPriority(parent, false);
+        }
+        return new SharedPriority(null, value != RequestPriority.BACKGROUND);
+    }
+
+    /**
+     * Records that a caller with context {@code ctx} now waits on the load, raising it if that caller is interactive.
+     */
+    public void join(ContextView ctx) {
+        if (RequestPriority.get(ctx) == RequestPriority.INTERACTIVE && !interactive) {
+            interactive = true;
+            raised.tryEmitEmpty();
+        }
+    }
+
+    /**
+     * Makes this the request priority of the load it is applied to.
+     */
+    public Function<Context, Context> bind() {
+        return ctx -> ctx.put(RequestPriority.CONTEXT_KEY, this);
+    }
+
+    RequestPriority current() {
+        return interactive || (parent != null && parent.current() == RequestPriority.INTERACTIVE)
+                ? RequestPriority.INTERACTIVE
+                : RequestPriority.BACKGROUND;
+    }
+
+    Mono<Void> whenInteractive() {
+        if (current() == RequestPriority.INTERACTIVE) {
+            return Mono.empty();
+        }
+        return parent == null ? raised.asMono() : Mono.firstWithSignal(raised.asMono(), parent.whenInteractive());
+    }
+}
@@ -0,0 +1,66 @@
+package com.astrokiddo.service.impl;
+
+import com.astrokiddo.config.AppProperties;
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.service.ApodService;
+import com.astrokiddo.service.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically backfills the configured APOD history window. Each run skips chunks that are already complete, so
+ * a run cut short by quota or an outage simply resumes on the next one.
+ */
+@Component
+public class ApodBackfillScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ApodBackfillScheduler.class);
+
+    private final ApodService apodService;
+    private final NasaProperties nasaProperties;
+    private final ZoneId zoneId;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter inserted;
+
+    public ApodBackfillScheduler(ApodService apodService, NasaProperties nasaProperties, AppProperties appProperties,
+                                 MeterRegistry meterRegistry) {
+        this.apodService = apodService;
+        this.nasaProperties = nasaProperties;
+        this.zoneId = appProperties.getZoneId();
+        this.inserted = meterRegistry.counter("astrokiddo.apod.backfill.inserted");
+    }
+
+    @Scheduled(fixedDelayString = "${app.nasa.apod-backfill.interval}",
+            initialDelayString = "${app.nasa.apod-backfill.initial-delay}")
+    public void backfill() {
+        NasaProperties.ApodBackfillSettings settings = nasaProperties.getApodBackfill();
+        if (!settings.isEnabled() || settings.getStartDate() == null) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Skipping APOD backfill: previous run still in progress");
+            return;
+        }
+        LocalDate today = LocalDate.now(zoneId);
+        LocalDate end = settings.getEndDate() != null && settings.getEndDate().isBefore(today)
+                ? settings.getEndDate()
+                : today;
+        apodService.backfillHistory(settings.getStartDate(), end)
+                .contextWrite(RequestPriority.background())
+                .doFinally(signal -> running.set(false))
+                .subscribe(count -> {
+                    inserted.increment(count);
+                    if (count > 0) {
+                        log.info("APOD backfill {}..{} inserted {} entries", settings.getStartDate(), end, count);
+                    }
+                }, ex -> log.warn("APOD backfill stopped, resuming on the next run: {}", ex.toString()));
+    }
+}
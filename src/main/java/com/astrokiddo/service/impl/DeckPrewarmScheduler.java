@@ -0,0 +1,153 @@
+package com.astrokiddo.service.impl;
+
+import com.astrokiddo.config.DeckProperties;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import com.astrokiddo.service.DeckService;
+import com.astrokiddo.service.GenerationDeadline;
+import com.astrokiddo.service.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates or refreshes the decks of a configured topic × grade × locale matrix ahead of school hours,
+ * paced to stay well under the NASA and Cloudflare quotas.
+ */
+@Component
+public class DeckPrewarmScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DeckPrewarmScheduler.class);
+
+    private final DeckService deckService;
+    private final DeckProperties deckProperties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final Counter generated;
+    private final Counter fresh;
+    private final Counter failed;
+    private final Timer generationTimer;
+    private final Timer runTimer;
+
+    public DeckPrewarmScheduler(DeckService deckService, DeckProperties deckProperties, MeterRegistry meterRegistry) {
+        this.deckService = deckService;
+        this.deckProperties = deckProperties;
+        this.generated = meterRegistry.counter("astrokiddo.deck.prewarm.items", "result", "generated");
+        this.fresh = meterRegistry.counter("astrokiddo.deck.prewarm.items", "result", "fresh");
+        this.failed = meterRegistry.counter("astrokiddo.deck.prewarm.items", "result", "failed");
+        this.generationTimer = meterRegistry.timer("astrokiddo.deck.prewarm.generation");
+        this.runTimer = meterRegistry.timer("astrokiddo.deck.prewarm.run");
+        meterRegistry.gauge("astrokiddo.deck.prewarm.remaining", remaining);
+    }
+
+    @Scheduled(cron = "${app.deck.prewarm.cron}", zone = "${app.time-zone}")
+    public void prewarmDecks() {
+        DeckProperties.PrewarmSettings settings = deckProperties.getPrewarm();
+        if (!settings.isEnabled() || settings.getTopics().isEmpty()) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Skipping deck prewarm: previous run still in progress");
+            return;
+        }
+        run(settings).doFinally(signal -> running.set(false))
+                .subscribe(null, ex -> log.error("Deck prewarm failed", ex));
+    }
+
+    Mono<Void> run(DeckProperties.PrewarmSettings settings) {
+        List<GenerateDeckRequestDto> matrix = matrix(settings);
+        Instant expiringBefore = Instant.now().plus(settings.getRefreshWindow());
+        Duration pace = Duration.ofMillis(60_000L / Math.max(1, settings.getMaxPerMinute()));
+        Timer.Sample sample = Timer.start();
+        RunTally tally = new RunTally();
+        log.info("Deck prewarm started: {} matrix entries", matrix.size());
+        remaining.set(matrix.size());
+
+        return Flux.fromIterable(matrix)
+                .concatMap(request -> deckService.needsRefresh(request, expiringBefore)
+                        .onErrorReturn(true)
+                        .filter(due -> {
+                            if (!due) {
+                                fresh.increment();
+                                tally.fresh.incrementAndGet();
+                                remaining.decrementAndGet();
+                            }
+                            return due;
+                        })
+                        .map(due -> request))
+                // Only actual generations are paced; decks that are still fresh cost a single query.
+                .delayElements(pace)
+                .flatMap(request -> prewarm(request, settings.getDeadline(), tally),
+                        Math.max(1, settings.getConcurrency()))
+                .then()
+                .doOnTerminate(() -> {
+                    long elapsed = sample.stop(runTimer);
+                    log.info("Deck prewarm finished in {}s: generated={}, fresh={}, failed={}",
+                            Duration.ofNanos(elapsed).toSeconds(), tally.generated, tally.fresh, tally.failed);
+                });
+    }
+
+    private Mono<Void> prewarm(GenerateDeckRequestDto request, Duration deadline, RunTally tally) {
+        Timer.Sample sample = Timer.start();
+        return deckService.regenerate(request)
+                .contextWrite(GenerationDeadline.at(Instant.now().plus(deadline)))
+                .contextWrite(RequestPriority.background())
+                .doOnSuccess(deck -> {
+                    sample.stop(generationTimer);
+                    generated.increment();
+                    tally.generated.incrementAndGet();
+                    log.info("Prewarmed deck {} ({}|{}|{}), {} left", deck.getId(), request.getTopic(),
+                            request.getGradeLevel(), request.getLocale(), remaining.decrementAndGet());
+                })
+                .onErrorResume(ex -> {
+                    failed.increment();
+                    tally.failed.incrementAndGet();
+                    remaining.decrementAndGet();
+                    log.warn("Prewarm of {}|{}|{} failed: {}", request.getTopic(), request.getGradeLevel(),
+                            request.getLocale(), ex.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private List<GenerateDeckRequestDto> matrix(DeckProperties.PrewarmSettings settings) {
+        List<String> gradeLevels = orNone(settings.getGradeLevels());
+        List<String> locales = orNone(settings.getLocales());
+        List<GenerateDeckRequestDto> matrix = new ArrayList<>();
+        for (String topic : settings.getTopics()) {
+            for (String gradeLevel : gradeLevels) {
+                for (String locale : locales) {
+                    GenerateDeckRequestDto request = new GenerateDeckRequestDto();
+                    request.setTopic(topic);
+                    request.setGradeLevel(gradeLevel);
+                    request.setLocale(locale);
+                    matrix.add(request);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private List<String> orNone(List<String> values) {
+        return values == null || values.isEmpty() ? Collections.singletonList(null) : values;
+    }
+
+    private static final class RunTally {
+        private final AtomicInteger generated = new AtomicInteger();
+        private final AtomicInteger fresh = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+    }
+}
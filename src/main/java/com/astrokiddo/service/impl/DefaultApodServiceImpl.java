@@ -2,9 +2,12 @@ package com.astrokiddo.service.impl;
 
 import com.astrokiddo.cloudflare.CloudflareTtsClient;
 import com.astrokiddo.config.AppProperties;
+import com.astrokiddo.config.NasaProperties;
 import com.astrokiddo.dto.ApodResponseDto;
+import com.astrokiddo.dto.CursorPageDto;
 import com.astrokiddo.entity.apod.Apod;
 import com.astrokiddo.nasa.ApodClient;
+import com.astrokiddo.repository.apod.ApodBatchWriter;
 import com.astrokiddo.repository.apod.ApodRepository;
 import com.astrokiddo.service.ApodService;
 import com.astrokiddo.storage.R2StorageService;
@@ -19,37 +22,50 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class DefaultApodServiceImpl implements ApodService {
     private static final Logger log = LoggerFactory.getLogger(DefaultApodServiceImpl.class);
-    //TODO remove it when we are ready
-    private static final LocalDate MIN_APOD_DATE = LocalDate.of(2025, 12, 1);
+    // NASA publishes each day's APOD on US Eastern time and rejects ranges that end after that day.
+    private static final ZoneId APOD_ZONE = ZoneId.of("America/New_York");
 
     private final ApodRepository apodRepository;
+    private final ApodBatchWriter apodBatchWriter;
     private final ApodClient apodClient;
     private final CloudflareTtsClient cloudflareTtsClient;
     private final R2StorageService r2StorageService;
     private final ZoneId zoneId;
+    private final LocalDate minApodDate;
+    private final NasaProperties.ApodBackfillSettings backfillSettings;
 
     public DefaultApodServiceImpl(ApodRepository apodRepository,
+                           ApodBatchWriter apodBatchWriter,
                            ApodClient apodClient,
                            CloudflareTtsClient cloudflareTtsClient,
                            R2StorageService r2StorageService,
-                           AppProperties appProperties) {
+                           AppProperties appProperties,
+                           NasaProperties nasaProperties) {
         this.apodRepository = apodRepository;
+        this.apodBatchWriter = apodBatchWriter;
         this.apodClient = apodClient;
         this.cloudflareTtsClient = cloudflareTtsClient;
         this.r2StorageService = r2StorageService;
         this.zoneId = appProperties.getZoneId();
+        this.minApodDate = nasaProperties.getApodMinDate();
+        this.backfillSettings = nasaProperties.getApodBackfill();
     }
 
     @Override
@@ -61,15 +77,22 @@ public class DefaultApodServiceImpl implements ApodService {
     public Mono<ApodResponseDto> getOrCreateApod(LocalDate date) {
         LocalDate targetDate = date != null ? date : LocalDate.now(zoneId);
         LocalDate today = LocalDate.now(zoneId);
-        if (targetDate.isBefore(MIN_APOD_DATE) || targetDate.isAfter(today)) {
+        if (targetDate.isBefore(minApodDate) || targetDate.isAfter(today)) {
             return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    String.format("APOD date must be between %s and %s", MIN_APOD_DATE, today)));
+                    String.format("APOD date must be between %s and %s", minApodDate, today)));
         }
         return apodRepository.findByApodDate(targetDate)
                 .map(this::toDto)
                 .switchIfEmpty(fetchAndPersistApod(targetDate));
     }
 
+    @Override
+    public Mono<Version> getVersion(LocalDate date) {
+        LocalDate targetDate = date != null ? date : LocalDate.now(zoneId);
+        return apodRepository.findVersionByApodDate(targetDate)
+                .map(apod -> new Version(targetDate, apod.getUpdatedAt()));
+    }
+
     @Override
     public Mono<Page<ApodResponseDto>> listApods(Pageable pageable) {
         Pageable pageableWithSort = pageable;
@@ -85,9 +108,82 @@ public class DefaultApodServiceImpl implements ApodService {
                 .zipWith(apodRepository.count(), (items, total) -> new PageImpl<>(items, finalPageable, total));
     }
 
+    @Override
+    public Mono<CursorPageDto<ApodResponseDto>> listApodsByCursor(String cursor, int size, boolean includeTotal) {
+        int pageSize = SeekCursors.clampPageSize(size);
+        Mono<List<Apod>> apods;
+        if (SeekCursors.isFirstPage(cursor)) {
+            apods = apodRepository.findLatest(pageSize + 1).collectList();
+        } else {
+            LocalDate before;
+            try {
+                before = LocalDate.parse(SeekCursors.decode(cursor, 1)[0]);
+            } catch (DateTimeParseException ex) {
+                return Mono.error(SeekCursors.invalid(cursor));
+            }
+            apods = apodRepository.findLatestBefore(before, pageSize + 1).collectList();
+        }
+
+        Mono<Long> total = includeTotal ? apodRepository.count() : Mono.just(-1L);
+
+        return apods.zipWith(total, (items, count) -> {
+            boolean hasNext = items.size() > pageSize;
+            List<Apod> page = hasNext ? items.subList(0, pageSize) : items;
+            String nextCursor = hasNext ? SeekCursors.encode(page.get(page.size() - 1).getApodDate()) : null;
+            return new CursorPageDto<>(page.stream().map(this::toDto).toList(), nextCursor, count >= 0 ? count : null);
+        });
+    }
+
+    @Override
+    public Mono<Long> backfillHistory(LocalDate start, LocalDate end) {
+        LocalDate latest = LocalDate.now(APOD_ZONE);
+        LocalDate from = start.isBefore(minApodDate) ? minApodDate : start;
+        LocalDate to = end.isAfter(latest) ? latest : end;
+        // Newest chunks first; completed chunks cost one count query, so an interrupted run resumes cheaply.
+        int chunkDays = Math.max(1, backfillSettings.getChunkDays());
+        List<DateRange> chunks = new ArrayList<>();
+        for (LocalDate chunkEnd = to; !chunkEnd.isBefore(from); chunkEnd = chunkEnd.minusDays(chunkDays)) {
+            LocalDate chunkStart = chunkEnd.minusDays(chunkDays - 1L);
+            chunks.add(new DateRange(chunkStart.isBefore(from) ? from : chunkStart, chunkEnd));
+        }
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> backfillChunk(chunk.start(), chunk.end()))
+                // TTS is slow and metered; it drains behind the inserts at bounded concurrency.
+                .flatMap(this::attachTtsAudio, Math.max(1, backfillSettings.getTtsConcurrency()))
+                .count();
+    }
+
+    private Flux<Apod> backfillChunk(LocalDate start, LocalDate end) {
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        return apodRepository.countByApodDateBetween(start, end)
+                .filter(stored -> stored < days)
+                .flatMap(stored -> apodClient.apodRange(start, end))
+                .map(responses -> responses.stream()
+                        .map(response -> {
+                            LocalDate apodDate = resolveApodDate(response.getDate(), null);
+                            return apodDate != null ? buildApod(response, apodDate) : null;
+                        })
+                        .filter(Objects::nonNull)
+                        .toList())
+                .flatMap(apods -> apodBatchWriter.insertMissing(apods).collectList()
+                        .doOnNext(inserted -> log.info("APOD backfill {}..{}: fetched {}, inserted {}",
+                                start, end, apods.size(), inserted.size())))
+                .flatMapIterable(inserted -> inserted);
+    }
+
+    private Mono<Apod> attachTtsAudio(Apod apod) {
+        return generateTtsAudio(apod.getApodDate(), apod.getExplanation())
+                .flatMap(url -> apodRepository.updateTtsAudioUrl(apod.getId(), url)
+                        .doOnNext(updated -> apod.setTtsAudioUrl(url)))
+                .onErrorResume(ex -> {
+                    log.warn("Failed to store TTS for APOD {}: {}", apod.getApodDate(), ex.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(apod);
+    }
+
     private Mono<ApodResponseDto> fetchAndPersistApod(LocalDate targetDate) {
         return apodClient.apod(targetDate)
-                .timeout(Duration.ofSeconds(15))
                 .switchIfEmpty(Mono.error(new IllegalStateException("NASA APOD response was empty for date " + targetDate)))
                 .flatMap(apiResponse -> {
                     LocalDate apodDate = resolveApodDate(apiResponse.getDate(), targetDate);
@@ -104,6 +200,7 @@ public class DefaultApodServiceImpl implements ApodService {
     private static Apod buildApod(ApodResponseDto apiResponse, LocalDate apodDate) {
         Apod apod = new Apod();
         apod.setApodDate(apodDate);
+        apod.setUpdatedAt(Instant.now());
         apod.setTitle(apiResponse.getTitle());
         apod.setExplanation(apiResponse.getExplanation());
         apod.setMediaType(apiResponse.getMediaType());
@@ -137,7 +234,6 @@ public class DefaultApodServiceImpl implements ApodService {
                             return r2StorageService.saveAudio(key, audio);
                         })
                         .subscribeOn(Schedulers.boundedElastic()))
-                .timeout(Duration.ofSeconds(60))
                 .onErrorResume(ex -> {
                     log.warn("Failed to generate TTS for APOD {}: {}", apodDate, ex.getMessage());
                     return Mono.empty();
@@ -158,4 +254,7 @@ public class DefaultApodServiceImpl implements ApodService {
         dto.setTtsAudioUrl(apod.getTtsAudioUrl());
         return dto;
     }
-}
\ No newline at end of file
+
+    private record DateRange(LocalDate start, LocalDate end) {
+    }
+}
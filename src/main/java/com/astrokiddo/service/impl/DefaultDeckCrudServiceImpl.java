@@ -1,30 +1,77 @@
 package com.astrokiddo.service.impl;
 
 import com.astrokiddo.entity.deck.Deck;
+import com.astrokiddo.entity.deck.Slide;
 import com.astrokiddo.repository.deck.DeckRepository;
+import com.astrokiddo.repository.deck.SlideWriter;
 import com.astrokiddo.service.DeckCrudService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.query.Query;
+import io.r2dbc.postgresql.codec.Json;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 @Service
 public class DefaultDeckCrudServiceImpl implements DeckCrudService {
 
+    private static final String UPSERT_BY_DECK_KEY = """
+            INSERT INTO decks (deck_key, topic, grade_level, locale, title, description, nasa_source, content_json,
+                               created_at, updated_at, expires_at)
+            VALUES (:deckKey, :topic, :gradeLevel, :locale, :title, :description, :nasaSource, :contentJson,
+                    :createdAt, :updatedAt, :expiresAt)
+            ON CONFLICT (deck_key) DO UPDATE SET
+                topic = EXCLUDED.topic,
+                grade_level = EXCLUDED.grade_level,
+                locale = EXCLUDED.locale,
+                title = EXCLUDED.title,
+                description = EXCLUDED.description,
+                nasa_source = EXCLUDED.nasa_source,
+                content_json = EXCLUDED.content_json,
+                updated_at = EXCLUDED.updated_at,
+                expires_at = EXCLUDED.expires_at
+            RETURNING *""";
+
+    /**
+     * Weighted search document over topic, title, description and the NASA source strings. It must match the
+     * expression of {@code idx_decks_search_document} (migration V7) for the GIN index to be used.
+     */
+    private static final String SEARCH_DOCUMENT = """
+            (setweight(to_tsvector('simple', coalesce(d.topic, '')), 'A') || \
+            setweight(to_tsvector('simple', coalesce(d.title, '')), 'B') || \
+            setweight(to_tsvector('simple', coalesce(d.description, '')), 'C') || \
+            setweight(jsonb_to_tsvector('simple', coalesce(d.nasa_source, '{}'::jsonb), '["string"]'), 'D'))""";
+
+    /**
+     * Full-text match on the search document, plus a trigram-indexed topic match so partial words still hit.
+     */
+    private static final String SEARCH_FROM = "FROM decks d, websearch_to_tsquery('simple', :search) query"
+            + " WHERE (" + SEARCH_DOCUMENT + " @@ query OR d.topic ILIKE :searchPattern)";
+
     private final DeckRepository deckRepository;
     private final R2dbcEntityTemplate template;
+    private final SlideWriter slideWriter;
+    private final TransactionalOperator transactionalOperator;
 
-    public DefaultDeckCrudServiceImpl(DeckRepository deckRepository, R2dbcEntityTemplate template) {
+    public DefaultDeckCrudServiceImpl(DeckRepository deckRepository, R2dbcEntityTemplate template,
+                                      SlideWriter slideWriter, TransactionalOperator transactionalOperator) {
         this.deckRepository = deckRepository;
         this.template = template;
+        this.slideWriter = slideWriter;
+        this.transactionalOperator = transactionalOperator;
     }
 
     @Override
@@ -37,6 +84,43 @@ public class DefaultDeckCrudServiceImpl implements DeckCrudService {
         return deckRepository.save(deck);
     }
 
+    @Override
+    public Mono<Deck> upsertWithSlides(Deck deck, List<Slide> slides) {
+        return upsertByDeckKey(deck)
+                .flatMap(saved -> {
+                    slides.forEach(slide -> slide.setDeckId(saved.getId()));
+                    return slideWriter.replaceSlides(saved.getId(), slides)
+                            .map(written -> {
+                                saved.setSlides(written);
+                                return saved;
+                            });
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Deck> upsertByDeckKey(Deck deck) {
+        Instant now = Instant.now();
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(UPSERT_BY_DECK_KEY)
+                .bind("deckKey", deck.getDeckKey())
+                .bind("topic", deck.getTopic())
+                .bind("createdAt", deck.getCreatedAt() != null ? deck.getCreatedAt() : now)
+                .bind("updatedAt", now);
+        spec = bindNullable(spec, "gradeLevel", deck.getGradeLevel(), String.class);
+        spec = bindNullable(spec, "locale", deck.getLocale(), String.class);
+        spec = bindNullable(spec, "title", deck.getTitle(), String.class);
+        spec = bindNullable(spec, "description", deck.getDescription(), String.class);
+        spec = bindNullable(spec, "nasaSource", deck.getNasaSource(), Json.class);
+        spec = bindNullable(spec, "contentJson", deck.getContentJson(), Json.class);
+        spec = bindNullable(spec, "expiresAt", deck.getExpiresAt(), Instant.class);
+        return spec.map((row, metadata) -> template.getConverter().read(Deck.class, row, metadata))
+                .one();
+    }
+
+    private <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                               String name, T value, Class<T> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
     @Override
     public Mono<Deck> findById(Long id) {
         return deckRepository.findById(id)
@@ -48,9 +132,131 @@ public class DefaultDeckCrudServiceImpl implements DeckCrudService {
                                     String gradeLevel,
                                     String locale,
                                     String nasaSource,
+                                    String search,
+                                    Instant createdAfter,
+                                    Instant createdBefore,
+                                    Pageable pageable) {
+        if (search != null && !search.isBlank()) {
+            return search(topic, gradeLevel, locale, nasaSource, search.trim(), createdAfter, createdBefore, pageable);
+        }
+        Criteria criteria = buildCriteria(topic, gradeLevel, locale, nasaSource, createdAfter, createdBefore);
+
+        Query query = Query.query(criteria)
+                .sort(pageable.getSort())
+                .limit(pageable.getPageSize())
+                .offset(pageable.getOffset());
+
+        Mono<Long> count = template.count(Query.query(criteria), Deck.class);
+
+        return template.select(query, Deck.class)
+                .collectList()
+                .zipWith(count, (results, total) -> new PageImpl<>(results, pageable, total));
+    }
+
+    private Mono<Page<Deck>> search(String topic,
+                                    String gradeLevel,
+                                    String locale,
+                                    String nasaSource,
+                                    String search,
                                     Instant createdAfter,
                                     Instant createdBefore,
                                     Pageable pageable) {
+        Map<String, Object> binds = new LinkedHashMap<>();
+        binds.put("search", search);
+        binds.put("searchPattern", "%" + escapeLike(search) + "%");
+        StringBuilder where = new StringBuilder(SEARCH_FROM);
+        if (topic != null && !topic.isBlank()) {
+            where.append(" AND d.topic LIKE :topic");
+            binds.put("topic", "%" + topic.toLowerCase() + "%");
+        }
+        if (gradeLevel != null && !gradeLevel.isBlank()) {
+            where.append(" AND d.grade_level = :gradeLevel");
+            binds.put("gradeLevel", gradeLevel.toLowerCase());
+        }
+        if (locale != null && !locale.isBlank()) {
+            where.append(" AND d.locale = :locale");
+            binds.put("locale", locale.toLowerCase());
+        }
+        if (nasaSource != null && !nasaSource.isBlank()) {
+            where.append(" AND d.nasa_source::text LIKE :nasaSource");
+            binds.put("nasaSource", "%" + nasaSource.toLowerCase() + "%");
+        }
+        if (createdAfter != null) {
+            where.append(" AND d.created_at >= :createdAfter");
+            binds.put("createdAfter", createdAfter);
+        }
+        if (createdBefore != null) {
+            where.append(" AND d.created_at <= :createdBefore");
+            binds.put("createdBefore", createdBefore);
+        }
+
+        String select = "SELECT d.* " + where
+                + " ORDER BY ts_rank(" + SEARCH_DOCUMENT + ", query) + similarity(d.topic, :search) DESC,"
+                + " d.created_at DESC, d.id DESC LIMIT :limit OFFSET :offset";
+        Mono<List<Deck>> results = bindAll(template.getDatabaseClient().sql(select), binds)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map((row, metadata) -> template.getConverter().read(Deck.class, row, metadata))
+                .all()
+                .collectList();
+        Mono<Long> count = bindAll(template.getDatabaseClient().sql("SELECT count(*) AS total " + where), binds)
+                .map(row -> row.get("total", Long.class))
+                .one();
+
+        return results.zipWith(count, (content, total) -> new PageImpl<>(content, pageable, total));
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindAll(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> binds) {
+        for (Map.Entry<String, Object> bind : binds.entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+        return spec;
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public Flux<Deck> findAllAfter(String topic,
+                                   String gradeLevel,
+                                   String locale,
+                                   String nasaSource,
+                                   Instant createdAfter,
+                                   Instant createdBefore,
+                                   Instant afterCreatedAt,
+                                   Long afterId,
+                                   int limit) {
+        Criteria criteria = buildCriteria(topic, gradeLevel, locale, nasaSource, createdAfter, createdBefore);
+        if (afterCreatedAt != null && afterId != null) {
+            criteria = criteria.and(Criteria.where("created_at").lessThan(afterCreatedAt)
+                    .or(Criteria.where("created_at").is(afterCreatedAt).and("id").lessThan(afterId)));
+        }
+
+        Query query = Query.query(criteria)
+                .sort(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(limit);
+
+        return template.select(query, Deck.class);
+    }
+
+    @Override
+    public Mono<Long> count(String topic,
+                            String gradeLevel,
+                            String locale,
+                            String nasaSource,
+                            Instant createdAfter,
+                            Instant createdBefore) {
+        Criteria criteria = buildCriteria(topic, gradeLevel, locale, nasaSource, createdAfter, createdBefore);
+        return template.count(Query.query(criteria), Deck.class);
+    }
+
+    private Criteria buildCriteria(String topic,
+                                   String gradeLevel,
+                                   String locale,
+                                   String nasaSource,
+                                   Instant createdAfter,
+                                   Instant createdBefore) {
         Criteria criteria = Criteria.empty();
 
         if (topic != null && !topic.isBlank()) {
@@ -71,17 +277,7 @@ public class DefaultDeckCrudServiceImpl implements DeckCrudService {
         if (createdBefore != null) {
             criteria = criteria.and(Criteria.where("created_at").lessThanOrEquals(createdBefore));
         }
-
-        Query query = Query.query(criteria)
-                .sort(pageable.getSort())
-                .limit(pageable.getPageSize())
-                .offset(pageable.getOffset());
-
-        Mono<Long> count = template.count(Query.query(criteria), Deck.class);
-
-        return template.select(query, Deck.class)
-                .collectList()
-                .zipWith(count, (results, total) -> new PageImpl<>(results, pageable, total));
+        return criteria;
     }
 
     @Override
@@ -89,6 +285,14 @@ public class DefaultDeckCrudServiceImpl implements DeckCrudService {
         return deckRepository.findByDeckKey(deckKey);
     }
 
+    @Override
+    public Mono<Instant> findUpdatedAtById(Long id) {
+        return template.getDatabaseClient().sql("SELECT updated_at FROM decks WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("updated_at", Instant.class))
+                .one();
+    }
+
     @Override
     public Flux<Deck> findAll() {
         return deckRepository.findAll();
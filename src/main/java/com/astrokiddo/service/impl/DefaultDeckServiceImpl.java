@@ -1,64 +1,190 @@
 package com.astrokiddo.service.impl;
 
+import com.astrokiddo.config.CloudflareAiProperties;
+import com.astrokiddo.config.DeckProperties;
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.dto.BatchDeckResultDto;
+import com.astrokiddo.dto.CursorPageDto;
+import com.astrokiddo.dto.DeckGenerationEventDto;
 import com.astrokiddo.dto.GenerateDeckRequestDto;
 import com.astrokiddo.entity.deck.Deck;
 import com.astrokiddo.entity.deck.Slide;
 import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.repository.deck.LessonDeckMapper;
+import com.astrokiddo.repository.deck.LessonDeckReader;
 import com.astrokiddo.repository.deck.SlideRepository;
 import com.astrokiddo.service.DeckCrudService;
 import com.astrokiddo.service.DeckService;
 import com.astrokiddo.service.LessonGeneratorService;
+import com.astrokiddo.service.RequestPriority;
+import com.astrokiddo.service.SharedPriority;
+import com.astrokiddo.store.DeckStore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.r2dbc.postgresql.codec.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
-import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 @Service
 public class DefaultDeckServiceImpl implements DeckService {
 
-    private static final Duration VALIDITY = Duration.ofDays(60);
+    private static final Logger log = LoggerFactory.getLogger(DefaultDeckServiceImpl.class);
 
     private final DeckCrudService defaultDeckCrudService;
     private final LessonGeneratorService lessonGeneratorService;
     private final ObjectMapper objectMapper;
     private final SlideRepository slideRepository;
+    private final DeckProperties deckProperties;
+    private final DeckStore deckStore;
+    private final LessonDeckReader lessonDeckReader;
+    private final LessonDeckMapper lessonDeckMapper;
+    private final ConcurrentMap<String, InFlightGeneration> inFlightGenerations = new ConcurrentHashMap<>();
+    private final Counter coalescedGenerations;
+    private final int batchConcurrency;
 
     public DefaultDeckServiceImpl(DeckCrudService defaultDeckCrudService,
                                   LessonGeneratorService lessonGeneratorService,
-                                  ObjectMapper objectMapper, SlideRepository slideRepository) {
+                                  ObjectMapper objectMapper, SlideRepository slideRepository,
+                                  DeckProperties deckProperties,
+                                  DeckStore deckStore,
+                                  LessonDeckReader lessonDeckReader,
+                                  LessonDeckMapper lessonDeckMapper,
+                                  MeterRegistry meterRegistry,
+                                  NasaProperties nasaProperties,
+                                  CloudflareAiProperties cloudflareAiProperties) {
         this.defaultDeckCrudService = defaultDeckCrudService;
         this.lessonGeneratorService = lessonGeneratorService;
         this.objectMapper = objectMapper;
         this.slideRepository = slideRepository;
+        this.deckProperties = deckProperties;
+        this.deckStore = deckStore;
+        this.lessonDeckReader = lessonDeckReader;
+        this.lessonDeckMapper = lessonDeckMapper;
+        this.coalescedGenerations = Counter.builder("astrokiddo.deck.generation.coalesced")
+                .description("Deck generation requests that joined an in-flight generation for the same deck key")
+                .register(meterRegistry);
+        // Each generation holds at most one NASA and one Cloudflare connection at a time.
+        this.batchConcurrency = Math.max(1, Math.min(deckProperties.getBatch().getConcurrency(),
+                Math.min(nasaProperties.getMaxConnections(), cloudflareAiProperties.getMaxConnections())));
     }
 
     @Override
     public Mono<LessonDeck> findOrGenerate(GenerateDeckRequestDto request) {
         String deckKey = computeDeckKey(request);
-        return defaultDeckCrudService.findByDeckKey(deckKey)
-                .flatMap(deck -> {
-                    if (!isExpired(deck)) {
-                        return toModelWithSlides(deck);
+        return findModelByDeckKey(deckKey)
+                .flatMap(model -> {
+                    if (!isExpired(model.getExpiresAt())) {
+                        return Mono.just(model);
+                    }
+                    if (isWithinStaleGrace(model.getExpiresAt())) {
+                        refreshInBackground(request, deckKey);
+                        return Mono.just(model);
                     }
-                    return regenerateAndSave(deck, request, deckKey);
+                    return generateOnce(request, deckKey);
                 })
-                .switchIfEmpty(regenerateAndSave(null, request, deckKey));
+                .switchIfEmpty(Mono.defer(() -> generateOnce(request, deckKey)));
+    }
+
+    @Override
+    public Flux<DeckGenerationEventDto> streamGenerate(GenerateDeckRequestDto request) {
+        String deckKey = computeDeckKey(request);
+        return findModelByDeckKey(deckKey)
+                .filter(model -> !isExpired(model.getExpiresAt()) || isWithinStaleGrace(model.getExpiresAt()))
+                .map(model -> {
+                    if (isExpired(model.getExpiresAt())) {
+                        refreshInBackground(request, deckKey);
+                    }
+                    return Flux.just(DeckGenerationEventDto.template(model.getSlides()),
+                            DeckGenerationEventDto.complete(model));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> streamGenerateOnce(request, deckKey)))
+                .flatMapMany(events -> events);
+    }
+
+    @Override
+    public Mono<Boolean> needsRefresh(GenerateDeckRequestDto request, Instant expiringBefore) {
+        return defaultDeckCrudService.findByDeckKey(computeDeckKey(request))
+                .map(deck -> deck.getExpiresAt() == null || deck.getExpiresAt().isBefore(expiringBefore))
+                .defaultIfEmpty(true);
+    }
+
+    @Override
+    public Mono<LessonDeck> regenerate(GenerateDeckRequestDto request) {
+        String deckKey = computeDeckKey(request);
+        return generateOnce(deckKey, key -> defaultDeckCrudService.findByDeckKey(key)
+                .flatMap(deck -> regenerateAndSave(deck, request, key))
+                .switchIfEmpty(Mono.defer(() -> regenerateAndSave(null, request, key))));
+    }
+
+    @Override
+    public Flux<BatchDeckResultDto> generateBatch(List<GenerateDeckRequestDto> requests) {
+        int maxItems = deckProperties.getBatch().getMaxItems();
+        if (requests.size() > maxItems) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch too large: " + requests.size() + " items, max " + maxItems));
+        }
+        return Flux.range(0, requests.size())
+                .flatMap(index -> generateBatchItem(index, requests.get(index)), batchConcurrency);
+    }
+
+    private Mono<BatchDeckResultDto> generateBatchItem(int index, GenerateDeckRequestDto request) {
+        if (request == null || request.getTopic() == null || request.getTopic().isBlank()) {
+            return Mono.just(batchResult(index, request, null, "topic must not be blank"));
+        }
+        return findOrGenerate(request)
+                .contextWrite(RequestPriority.background())
+                .map(deck -> batchResult(index, request, deck.getId(), null))
+                .onErrorResume(ex -> {
+                    log.warn("Batch item {} ({}) failed: {}", index, request.getTopic(), ex.getMessage());
+                    return Mono.just(batchResult(index, request, null,
+                            ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName()));
+                });
+    }
+
+    private BatchDeckResultDto batchResult(int index, GenerateDeckRequestDto request, String deckId, String error) {
+        return request == null
+                ? new BatchDeckResultDto(index, null, null, null, deckId, error)
+                : new BatchDeckResultDto(index, request.getTopic(), request.getGradeLevel(), request.getLocale(),
+                deckId, error);
     }
 
     @Override
     public Mono<LessonDeck> getById(Long id) {
-        return defaultDeckCrudService.findById(id)
-                .flatMap(this::toModelWithSlides);
+        return getById(id, null);
+    }
+
+    @Override
+    public Mono<LessonDeck> getById(Long id, Instant minUpdatedAt) {
+        return Mono.justOrEmpty(deckStore.get(id)
+                        .filter(deck -> minUpdatedAt == null
+                                || (deck.getUpdatedAt() != null && !deck.getUpdatedAt().isBefore(minUpdatedAt))))
+                .switchIfEmpty(Mono.defer(() -> lessonDeckReader.findById(id)
+                        .map(this::remember)
+                        .switchIfEmpty(Mono.error(new NoSuchElementException("Deck not found: " + id)))));
+    }
+
+    @Override
+    public Mono<Instant> getLastModified(Long id) {
+        return defaultDeckCrudService.findUpdatedAtById(id);
     }
 
     @Override
@@ -66,16 +192,62 @@ public class DefaultDeckServiceImpl implements DeckService {
                                             String gradeLevel,
                                             String locale,
                                             String nasaSource,
+                                            String search,
                                             Instant createdAfter,
                                             Instant createdBefore,
                                             Pageable pageable) {
-        return defaultDeckCrudService.findAll(topic, gradeLevel, locale, nasaSource, createdAfter, createdBefore, pageable)
-                .flatMap(page -> Flux.fromIterable(page.getContent())
-                        .concatMap(this::toModelWithSlides)
-                        .collectList()
+        return defaultDeckCrudService.findAll(topic, gradeLevel, locale, nasaSource, search, createdAfter, createdBefore,
+                        pageable)
+                .flatMap(page -> toModelsWithSlides(page.getContent())
                         .map(models -> new PageImpl<>(models, pageable, page.getTotalElements())));
     }
 
+    @Override
+    public Mono<CursorPageDto<LessonDeck>> listDecksByCursor(String topic,
+                                                             String gradeLevel,
+                                                             String locale,
+                                                             String nasaSource,
+                                                             Instant createdAfter,
+                                                             Instant createdBefore,
+                                                             String cursor,
+                                                             int size,
+                                                             boolean includeTotal) {
+        int pageSize = SeekCursors.clampPageSize(size);
+        Instant afterCreatedAt = null;
+        Long afterId = null;
+        if (!SeekCursors.isFirstPage(cursor)) {
+            String[] parts = SeekCursors.decode(cursor, 2);
+            try {
+                afterCreatedAt = Instant.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                return Mono.error(SeekCursors.invalid(cursor));
+            }
+        }
+
+        Mono<Long> total = includeTotal
+                ? defaultDeckCrudService.count(topic, gradeLevel, locale, nasaSource, createdAfter, createdBefore)
+                : Mono.just(-1L);
+
+        return defaultDeckCrudService.findAllAfter(topic, gradeLevel, locale, nasaSource, createdAfter, createdBefore,
+                        afterCreatedAt, afterId, pageSize + 1)
+                .collectList()
+                .flatMap(decks -> {
+                    boolean hasNext = decks.size() > pageSize;
+                    List<Deck> page = hasNext ? decks.subList(0, pageSize) : decks;
+                    Deck last = page.isEmpty() ? null : page.get(page.size() - 1);
+                    String nextCursor = hasNext ? SeekCursors.encode(last.getCreatedAt(), last.getId()) : null;
+                    return toModelsWithSlides(page)
+                            .map(models -> new CursorPageDto<>(models, nextCursor, null));
+                })
+                .zipWith(total, (page, count) -> {
+                    if (count >= 0) {
+                        page.setTotalElements(count);
+                    }
+                    return page;
+                });
+    }
+
     private String computeDeckKey(GenerateDeckRequestDto request) {
         return String.join("|",
                         normalize(request.getTopic()),
@@ -84,11 +256,132 @@ public class DefaultDeckServiceImpl implements DeckService {
                 .toLowerCase();
     }
 
-    private boolean isExpired(Deck deck) {
-        Instant expiresAt = deck.getExpiresAt();
+    private Mono<LessonDeck> findModelByDeckKey(String deckKey) {
+        return Mono.justOrEmpty(deckStore.getByDeckKey(deckKey))
+                .switchIfEmpty(Mono.defer(() -> lessonDeckReader.findByDeckKey(deckKey)
+                        .map(this::remember)));
+    }
+
+    private LessonDeck remember(LessonDeckReader.HydratedDeck hydrated) {
+        deckStore.save(hydrated.id(), hydrated.deckKey(), hydrated.deck());
+        return hydrated.deck();
+    }
+
+    private boolean isExpired(Instant expiresAt) {
         return expiresAt == null || expiresAt.isBefore(Instant.now());
     }
 
+    private boolean isWithinStaleGrace(Instant expiresAt) {
+        return expiresAt != null && expiresAt.plus(deckProperties.getStaleGrace()).isAfter(Instant.now());
+    }
+
+    private void refreshInBackground(GenerateDeckRequestDto request, String deckKey) {
+        if (inFlightGenerations.containsKey(deckKey)) {
+            return;
+        }
+        generateOnce(request, deckKey).contextWrite(RequestPriority.background()).subscribe(
+                deck -> log.debug("Refreshed stale deck {}", deckKey),
+                ex -> log.warn("Background refresh of deck {} failed: {}", deckKey, ex.getMessage()));
+    }
+
+    /**
+     * Runs at most one generation per deck key. Callers arriving while a generation is in flight
+     * subscribe to the same result, and raise its priority if they are interactive; the entry is dropped once
+     * the generation terminates.
+     */
+    private Mono<LessonDeck> generateOnce(GenerateDeckRequestDto request, String deckKey) {
+        return generateOnce(deckKey, key -> loadOrRegenerate(request, key));
+    }
+
+    private Mono<LessonDeck> generateOnce(String deckKey, Function<String, Mono<LessonDeck>> generation) {
+        return Mono.deferContextual(ctx -> {
+            boolean[] started = {false};
+            InFlightGeneration inFlight = inFlightGenerations.computeIfAbsent(deckKey, key -> {
+                started[0] = true;
+                SharedPriority priority = SharedPriority.startedBy(ctx);
+                return new InFlightGeneration(generation.apply(key)
+                        .contextWrite(priority.bind())
+                        .doFinally(signal -> inFlightGenerations.remove(key))
+                        .share(), priority);
+            });
+            if (!started[0]) {
+                coalescedGenerations.increment();
+                inFlight.priority().join(ctx);
+            }
+            return inFlight.result();
+        });
+    }
+
+    /**
+     * Streaming counterpart of {@link #generateOnce}: the caller that starts the generation sees the template
+     * slides and per-slide enrichment updates, callers joining an in-flight generation only see its completion.
+     * The save is subscribed as soon as the generation starts, so the deck is stored and the in-flight entry
+     * released even if the starting client disconnects before the drafts finish.
+     */
+    private Flux<DeckGenerationEventDto> streamGenerateOnce(GenerateDeckRequestDto request, String deckKey) {
+        return Flux.deferContextual(ctx -> {
+            SharedPriority priority = SharedPriority.startedBy(ctx);
+            Flux<LessonDeck> drafts = lessonGeneratorService.generateDrafts(request)
+                    .contextWrite(priority.bind())
+                    .cache();
+            boolean[] started = {false};
+            InFlightGeneration inFlight = inFlightGenerations.computeIfAbsent(deckKey, key -> {
+                started[0] = true;
+                return new InFlightGeneration(drafts.last()
+                        .flatMap(model -> saveDeck(null, model, request, key))
+                        .contextWrite(priority.bind())
+                        .doFinally(signal -> inFlightGenerations.remove(key))
+                        .cache(), priority);
+            });
+            Mono<DeckGenerationEventDto> complete = inFlight.result().map(DeckGenerationEventDto::complete);
+            if (!started[0]) {
+                coalescedGenerations.increment();
+                inFlight.priority().join(ctx);
+                return complete.flux();
+            }
+            inFlight.result().contextWrite(Context.of(ctx)).subscribe(
+                    deck -> log.debug("Saved streamed deck {}", deckKey),
+                    ex -> log.warn("Streamed generation of deck {} failed: {}", deckKey, ex.getMessage()));
+            return Flux.concat(draftEvents(drafts), complete);
+        });
+    }
+
+    private Flux<DeckGenerationEventDto> draftEvents(Flux<LessonDeck> drafts) {
+        LessonDeck[] previous = {null};
+        return drafts.concatMapIterable(draft -> {
+            List<DeckGenerationEventDto> events = new ArrayList<>();
+            if (previous[0] == null) {
+                events.add(DeckGenerationEventDto.template(draft.getSlides()));
+            } else {
+                List<com.astrokiddo.model.Slide> before = previous[0].getSlides();
+                List<com.astrokiddo.model.Slide> after = draft.getSlides();
+                for (int i = 0; i < after.size(); i++) {
+                    if (i >= before.size() || !sameContent(before.get(i), after.get(i))) {
+                        events.add(DeckGenerationEventDto.slide(i, after.get(i)));
+                    }
+                }
+            }
+            previous[0] = draft;
+            return events;
+        });
+    }
+
+    private boolean sameContent(com.astrokiddo.model.Slide a, com.astrokiddo.model.Slide b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getText(), b.getText())
+                && Objects.equals(a.getImageUrl(), b.getImageUrl())
+                && Objects.equals(a.getAttribution(), b.getAttribution());
+    }
+
+    private Mono<LessonDeck> loadOrRegenerate(GenerateDeckRequestDto request, String deckKey) {
+        // Re-check under the in-flight entry: a generation for this key may have finished in between.
+        return defaultDeckCrudService.findByDeckKey(deckKey)
+                .flatMap(deck -> isExpired(deck.getExpiresAt())
+                        ? regenerateAndSave(deck, request, deckKey)
+                        : toModelWithSlides(deck))
+                .switchIfEmpty(Mono.defer(() -> regenerateAndSave(null, request, deckKey)));
+    }
+
     private Mono<LessonDeck> regenerateAndSave(Deck existing, GenerateDeckRequestDto request, String deckKey) {
         return lessonGeneratorService.generate(request)
                 .flatMap(deckModel -> saveDeck(existing, deckModel, request, deckKey));
@@ -116,12 +409,12 @@ public class DefaultDeckServiceImpl implements DeckService {
                         deck.setCreatedAt(now);
                     }
                     deck.setUpdatedAt(now);
-                    deck.setExpiresAt(now.plus(VALIDITY));
+                    deck.setExpiresAt(now.plus(model.isPartial()
+                            ? deckProperties.getPartialValidity()
+                            : deckProperties.getValidity()));
 
-                    return defaultDeckCrudService.saveOrUpdate(deck)
-                            .flatMap(saved -> persistSlides(saved, model)
-                                    .doOnNext(saved::setSlides)
-                                    .thenReturn(saved))
+                    return defaultDeckCrudService.upsertWithSlides(deck, buildSlides(deck.getId(), model))
+                            .doOnNext(saved -> deckStore.invalidate(saved.getId()))
                             .flatMap(saved -> {
                                 syncModelFromEntity(saved, model);
                                 return Mono.just(model);
@@ -129,13 +422,6 @@ public class DefaultDeckServiceImpl implements DeckService {
                 });
     }
 
-    private Mono<List<Slide>> persistSlides(Deck deck, LessonDeck model) {
-        List<Slide> slides = buildSlides(deck.getId(), model);
-        return slideRepository.deleteByDeckId(deck.getId())
-                .thenMany(slideRepository.saveAll(slides))
-                .collectList();
-    }
-
     private Map<String, Object> buildNasaSource(GenerateDeckRequestDto request) {
         Map<String, Object> source = new HashMap<>();
         source.put("topic", normalize(request.getTopic()));
@@ -150,43 +436,34 @@ public class DefaultDeckServiceImpl implements DeckService {
                 .collectList()
                 .flatMap(slides -> Mono.fromCallable(() -> {
                     deck.setSlides(slides);
-                    return toModel(deck);
-                }).subscribeOn(Schedulers.boundedElastic()));
-    }
-
-    private LessonDeck toModel(Deck deck) {
-        LessonDeck model = new LessonDeck(deck.getTopic(), deck.getGradeLevel(), deck.getLocale());
-        model.setId("deck-" + deck.getId());
-        model.setCreatedAt(deck.getCreatedAt());
-        boolean hasSlides = deck.getSlides() != null && !deck.getSlides().isEmpty();
-        if (hasSlides) {
-            model.setSlides(deck.getSlides().stream().sorted(Comparator.comparingInt(a -> a.getPositionIndex() != null ? a.getPositionIndex() : 0))
-                    .map(this::toSlideModel)
-                    .toList());
+                    return lessonDeckMapper.toModel(deck);
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .doOnNext(model -> deckStore.save(deck.getId(), deck.getDeckKey(), model));
+    }
+
+    private Mono<List<LessonDeck>> toModelsWithSlides(List<Deck> decks) {
+        Map<Long, LessonDeck> cached = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Deck deck : decks) {
+            deckStore.get(deck.getId()).ifPresentOrElse(model -> cached.put(deck.getId(), model),
+                    () -> missing.add(deck.getId()));
         }
-        Json contentJson = deck.getContentJson();
-        if (contentJson != null) {
-            contentJson.asString();
-            if (!contentJson.asString().isBlank()) {
-                try {
-                    LessonDeck stored = objectMapper.readValue(contentJson.asString(), LessonDeck.class);
-                    if (stored.getEnrichment() != null) {
-                        model.setEnrichment(stored.getEnrichment());
-                    }
-                    if (!hasSlides && stored.getSlides() != null && !stored.getSlides().isEmpty()) {
-                        stored.getSlides().forEach(s -> {
-                            if (s.getSlideUuid() == null) {
-                                s.setSlideUuid(UUID.randomUUID());
-                            }
-                        });
-                        model.setSlides(stored.getSlides());
-                    }
-                } catch (JsonProcessingException e) {
-                    throw new IllegalStateException("Failed to parse deck JSON for id " + deck.getId(), e);
+        Mono<Map<Long, Collection<Slide>>> slidesByDeck = missing.isEmpty()
+                ? Mono.just(Map.of())
+                : slideRepository.findByDeckIdIn(missing).collectMultimap(Slide::getDeckId);
+        return slidesByDeck.flatMap(slides -> Mono.fromCallable(() -> {
+            List<LessonDeck> models = new ArrayList<>(decks.size());
+            for (Deck deck : decks) {
+                LessonDeck model = cached.get(deck.getId());
+                if (model == null) {
+                    deck.setSlides(new ArrayList<>(slides.getOrDefault(deck.getId(), List.of())));
+                    model = lessonDeckMapper.toModel(deck);
+                    deckStore.save(deck.getId(), deck.getDeckKey(), model);
                 }
+                models.add(model);
             }
-        }
-        return model;
+            return models;
+        }).subscribeOn(Schedulers.boundedElastic()));
     }
 
     private Mono<Json> toJson(Object value) {
@@ -208,14 +485,14 @@ public class DefaultDeckServiceImpl implements DeckService {
     }
 
     private void syncModelFromEntity(Deck saved, LessonDeck model) {
-        if (model.getId() == null || model.getId().isBlank()) {
-            model.setId("deck-" + saved.getId());
-        }
+        model.setId("deck-" + saved.getId());
         model.setCreatedAt(saved.getCreatedAt());
+        model.setUpdatedAt(saved.getUpdatedAt());
+        model.setExpiresAt(saved.getExpiresAt());
         if (saved.getSlides() != null) {
             model.setSlides(saved.getSlides().stream()
                     .sorted(Comparator.comparingInt(a -> a.getPositionIndex() != null ? a.getPositionIndex() : 0))
-                    .map(this::toSlideModel)
+                    .map(lessonDeckMapper::toSlideModel)
                     .toList());
         }
     }
@@ -242,18 +519,6 @@ public class DefaultDeckServiceImpl implements DeckService {
         return slides;
     }
 
-    private com.astrokiddo.model.Slide toSlideModel(Slide slide) {
-        com.astrokiddo.model.Slide model = new com.astrokiddo.model.Slide();
-        model.setSlideUuid(slide.getSlideUuid());
-        model.setType(slide.getType());
-        model.setTitle(slide.getTitle());
-        model.setText(slide.getText());
-        model.setImageUrl(slide.getImageUrl());
-        model.setAttribution(slide.getAttribution());
-        model.setTtsAudioUrl(slide.getTtsAudioUrl());
-        return model;
-    }
-
     private String normalize(String value) {
         return value == null ? "" : value.trim();
     }
@@ -262,4 +527,7 @@ public class DefaultDeckServiceImpl implements DeckService {
         String normalized = normalize(value);
         return normalized.isEmpty() ? null : normalized;
     }
-}
\ No newline at end of file
+
+    private record InFlightGeneration(Mono<LessonDeck> result, SharedPriority priority) {
+    }
+}
@@ -2,20 +2,30 @@ package com.astrokiddo.service.impl;
 
 import com.astrokiddo.cloudflare.CloudflareAiRecords;
 import com.astrokiddo.cloudflare.CloudflareAiService;
+import com.astrokiddo.config.DeckProperties;
 import com.astrokiddo.dto.GenerateDeckRequestDto;
-import com.astrokiddo.dto.ImageSearchResponseDto;
 import com.astrokiddo.model.LessonDeck;
 import com.astrokiddo.model.Slide;
+import com.astrokiddo.nasa.ImageSearchResult;
 import com.astrokiddo.nasa.NasaReactiveCache;
+import com.astrokiddo.service.GenerationDeadline;
 import com.astrokiddo.service.LessonGeneratorService;
+import com.astrokiddo.service.RequestPriority;
 import com.astrokiddo.templates.ContentTemplateEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class DefaultLessonGeneratorServiceImpl implements LessonGeneratorService {
@@ -23,41 +33,98 @@ public class DefaultLessonGeneratorServiceImpl implements LessonGeneratorService
     private final ContentTemplateEngine engine = new ContentTemplateEngine();
     private final NasaReactiveCache cache;
     private final CloudflareAiService aiService;
+    private final DeckProperties deckProperties;
+    private final MeterRegistry meterRegistry;
 
-    public DefaultLessonGeneratorServiceImpl(NasaReactiveCache cache, CloudflareAiService aiService) {
+    public DefaultLessonGeneratorServiceImpl(NasaReactiveCache cache, CloudflareAiService aiService,
+                                             DeckProperties deckProperties, MeterRegistry meterRegistry) {
         this.cache = cache;
         this.aiService = aiService;
+        this.deckProperties = deckProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     public Mono<LessonDeck> generate(GenerateDeckRequestDto req) {
+        return generateDrafts(req).last();
+    }
+
+    /**
+     * Image search and enrichment run concurrently, bounded by the deadline in the Reactor context: the generation
+     * deadline for interactive callers, the background deadline for background ones unless they set their own.
+     * Interactive callers additionally cap each stage at its own timeout; background callers give every stage the
+     * whole deadline, so a slow model still gets to answer. A stage that fails or runs out of time is treated as
+     * absent, so the deck is built from whatever finished and the final draft is marked
+     * {@link LessonDeck#isPartial() partial}.
+     */
+    @Override
+    public Flux<LessonDeck> generateDrafts(GenerateDeckRequestDto req) {
         String topic = req.getTopic().trim();
-        Mono<ImageSearchResponseDto> images =
-                cache.searchImages(topic, "image", null, null)
-                .switchIfEmpty(Mono.just(new ImageSearchResponseDto()))
-                .onErrorReturn(new ImageSearchResponseDto());
-        return images.flatMap(imgDto ->
-                aiService.enrich(req.getTopic(), req.getGradeLevel())
-                        .onErrorResume(ex -> Mono.empty())
-                        .map(enrichment -> buildDeck(topic, req.getGradeLevel(), imgDto, enrichment))
-                        .switchIfEmpty(Mono.defer(() -> Mono.just(buildDeck(topic, req.getGradeLevel(), imgDto, null))))
-        );
+        String gradeLevel = req.getGradeLevel();
+        DeckProperties.GenerationSettings settings = deckProperties.getGeneration();
+        return Flux.defer(() -> {
+                    AtomicBoolean degraded = new AtomicBoolean();
+                    Mono<ImageSearchResult> images = stage("images", settings.getImagesTimeout(), settings, degraded,
+                            cache.searchImages(topic, "image", null, null))
+                            .defaultIfEmpty(ImageSearchResult.EMPTY);
+                    Mono<Optional<CloudflareAiRecords.EnrichmentResponse>> enrichment = stage("enrichment",
+                            settings.getEnrichmentTimeout(), settings, degraded, aiService.enrich(req.getTopic(), gradeLevel))
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .cache();
+                    Flux<LessonDeck> drafts = images.flatMapMany(imageResult -> {
+                        LessonDeck template = buildDeck(topic, gradeLevel, imageResult);
+                        template.setPartial(degraded.get());
+                        Mono<LessonDeck> enriched = enrichment.flatMap(result -> Mono.justOrEmpty(
+                                        result.map(e -> enrichedCopy(template, e, gradeLevel))))
+                                // Without enrichment the template stays the final draft.
+                                .switchIfEmpty(Mono.fromRunnable(() -> template.setPartial(degraded.get())));
+                        return Flux.concat(Mono.just(template), enriched);
+                    });
+                    // Subscribing to the enrichment here starts it alongside the image search.
+                    return timed("total", degraded, Flux.merge(enrichment.then(Mono.<LessonDeck>empty()), drafts));
+                })
+                .contextWrite(GenerationDeadline.withDefault(settings.getDeadline(), settings.getBackgroundDeadline()));
     }
 
-    private List<ImageSearchResponseDto.Item> extractImageItems(ImageSearchResponseDto resp) {
-        if (resp == null || resp.getCollection() == null || resp.getCollection().getItems() == null) {
-            return List.of();
-        }
-        return resp.getCollection().getItems();
+    private <T> Mono<T> stage(String name, Duration timeout, DeckProperties.GenerationSettings settings,
+                              AtomicBoolean degraded, Mono<T> work) {
+        return Mono.deferContextual(ctx -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String[] outcome = {"empty"};
+            Duration cap = RequestPriority.get(ctx) == RequestPriority.BACKGROUND
+                    ? settings.getBackgroundDeadline()
+                    : timeout;
+            return work.timeout(GenerationDeadline.remaining(ctx, cap))
+                    .doOnNext(value -> outcome[0] = "success")
+                    .onErrorResume(ex -> {
+                        outcome[0] = ex instanceof TimeoutException ? "timeout" : "error";
+                        degraded.set(true);
+                        return Mono.empty();
+                    })
+                    .doFinally(signal -> record(sample, name, signal == SignalType.CANCEL ? "cancelled" : outcome[0]));
+        });
     }
 
-    private LessonDeck buildDeck(String topic, String gradeLevel, ImageSearchResponseDto imgDto,
-                                 CloudflareAiRecords.EnrichmentResponse enrichment) {
-        List<ImageSearchResponseDto.Item> items = new ArrayList<>(extractImageItems(imgDto));
-        items.removeIf(Objects::isNull);
+    private <T> Flux<T> timed(String stage, AtomicBoolean degraded, Flux<T> work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return work.doFinally(signal -> record(sample, stage,
+                signal == SignalType.CANCEL ? "cancelled" : degraded.get() ? "degraded" : "success"));
+    }
+
+    private void record(Timer.Sample sample, String stage, String outcome) {
+        sample.stop(Timer.builder("astrokiddo.generation.stage")
+                .description("Duration of lesson generation stages")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
 
-        ImageSearchResponseDto.Item keyVisualItem = !items.isEmpty() ? items.get(0) : null;
-        ImageSearchResponseDto.Item explanationItem = items.size() > 1 ? items.get(1) : keyVisualItem;
-        ImageSearchResponseDto.Item furtherReadingItem = items.size() > 2 ? items.get(2)
+    private LessonDeck buildDeck(String topic, String gradeLevel, ImageSearchResult images) {
+        List<ImageSearchResult.Item> items = images.items();
+
+        ImageSearchResult.Item keyVisualItem = !items.isEmpty() ? items.get(0) : null;
+        ImageSearchResult.Item explanationItem = items.size() > 1 ? items.get(1) : keyVisualItem;
+        ImageSearchResult.Item furtherReadingItem = items.size() > 2 ? items.get(2)
                 : (items.size() > 1 ? items.get(items.size() - 1) : keyVisualItem);
 
         LessonDeck deck = new LessonDeck(topic, gradeLevel, null);
@@ -69,8 +136,6 @@ public class DefaultLessonGeneratorServiceImpl implements LessonGeneratorService
         Slide question = engine.questionForClass(topic, gradeLevel);
         Slide further = engine.furtherReading(topic, furtherReadingItem);
 
-        applyEnrichment(enrichment, key, explanation, why, question, further, gradeLevel);
-
         slides.add(key);
         slides.add(explanation);
         slides.add(why);
@@ -83,13 +148,31 @@ public class DefaultLessonGeneratorServiceImpl implements LessonGeneratorService
             }
             deck.addSlide(s);
         });
+        return deck;
+    }
 
-        if (enrichment != null && enrichment.isMeaningful()) {
+    private LessonDeck enrichedCopy(LessonDeck template, CloudflareAiRecords.EnrichmentResponse enrichment,
+                                    String gradeLevel) {
+        LessonDeck deck = new LessonDeck(template.getTopic(), template.getGradeLevel(), template.getLocale());
+        deck.setPartial(template.isPartial());
+        template.getSlides().forEach(s -> deck.addSlide(copyOf(s)));
+        List<Slide> slides = deck.getSlides();
+        applyEnrichment(enrichment, slides.get(0), slides.get(1), slides.get(2), slides.get(3), slides.get(4),
+                gradeLevel);
+        if (enrichment.isMeaningful()) {
             deck.setEnrichment(enrichment);
         }
         return deck;
     }
 
+    private Slide copyOf(Slide source) {
+        Slide copy = new Slide(source.getType(), source.getTitle(), source.getText(), source.getImageUrl(),
+                source.getAttribution());
+        copy.setSlideUuid(source.getSlideUuid());
+        copy.setTtsAudioUrl(source.getTtsAudioUrl());
+        return copy;
+    }
+
     private void applyEnrichment(CloudflareAiRecords.EnrichmentResponse enrichment, Slide key, Slide explanation,
                                  Slide why, Slide question, Slide further, String gradeLevel) {
         if (enrichment == null) {
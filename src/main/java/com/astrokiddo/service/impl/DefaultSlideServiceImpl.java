@@ -2,9 +2,11 @@ package com.astrokiddo.service.impl;
 
 import com.astrokiddo.cloudflare.CloudflareTtsClient;
 import com.astrokiddo.entity.deck.Slide;
+import com.astrokiddo.repository.deck.DeckRepository;
 import com.astrokiddo.repository.deck.SlideRepository;
 import com.astrokiddo.service.SlideService;
 import com.astrokiddo.storage.R2StorageService;
+import com.astrokiddo.store.DeckStore;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
@@ -22,11 +24,17 @@ public class DefaultSlideServiceImpl implements SlideService {
     private final CloudflareTtsClient cloudflareTtsClient;
     private final R2StorageService r2StorageService;
     private final SlideRepository slideRepository;
+    private final DeckRepository deckRepository;
+    private final DeckStore deckStore;
 
-    public DefaultSlideServiceImpl(CloudflareTtsClient cloudflareTtsClient, R2StorageService r2StorageService, SlideRepository slideRepository) {
+    public DefaultSlideServiceImpl(CloudflareTtsClient cloudflareTtsClient, R2StorageService r2StorageService,
+                                   SlideRepository slideRepository, DeckRepository deckRepository,
+                                   DeckStore deckStore) {
         this.cloudflareTtsClient = cloudflareTtsClient;
         this.r2StorageService = r2StorageService;
         this.slideRepository = slideRepository;
+        this.deckRepository = deckRepository;
+        this.deckStore = deckStore;
     }
 
     @Override
@@ -49,7 +57,11 @@ public class DefaultSlideServiceImpl implements SlideService {
                 slide.setTtsTextHash(hash);
                 slide.setUpdatedAt(Instant.now());
                 return slide;
-            }).subscribeOn(Schedulers.boundedElastic()).flatMap(slideRepository::save).thenReturn(slide.getTtsAudioUrl()));
+            }).subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(slideRepository::save)
+                    .flatMap(saved -> deckRepository.touch(saved.getDeckId(), saved.getUpdatedAt()).thenReturn(saved))
+                    .doOnNext(saved -> deckStore.invalidate(saved.getDeckId()))
+                    .thenReturn(slide.getTtsAudioUrl()));
         });
     }
 
@@ -0,0 +1,124 @@
+package com.astrokiddo.service.impl;
+
+import com.astrokiddo.config.DeckProperties;
+import com.astrokiddo.repository.deck.ExpiredDeckDeleter;
+import com.astrokiddo.store.DeckStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Removes decks that expired longer than the retention ago, a small batch at a time with a pause
+ * in between so the sweep never competes with interactive traffic.
+ */
+@Component
+public class ExpiredDeckSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredDeckSweeper.class);
+
+    private final ExpiredDeckDeleter deleter;
+    private final DeckStore deckStore;
+    private final DeckProperties deckProperties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter decksRemoved;
+    private final Counter slidesRemoved;
+    private final DistributionSummary decksPerRun;
+    private final Timer runTimer;
+
+    public ExpiredDeckSweeper(ExpiredDeckDeleter deleter, DeckStore deckStore, DeckProperties deckProperties,
+                              MeterRegistry meterRegistry) {
+        this.deleter = deleter;
+        this.deckStore = deckStore;
+        this.deckProperties = deckProperties;
+        this.decksRemoved = meterRegistry.counter("astrokiddo.deck.sweeper.removed", "table", "decks");
+        this.slidesRemoved = meterRegistry.counter("astrokiddo.deck.sweeper.removed", "table", "slides");
+        this.decksPerRun = DistributionSummary.builder("astrokiddo.deck.sweeper.run.decks")
+                .description("Decks removed per sweeper run")
+                .register(meterRegistry);
+        this.runTimer = meterRegistry.timer("astrokiddo.deck.sweeper.run");
+    }
+
+    @Scheduled(fixedDelayString = "${app.deck.sweeper.interval}",
+            initialDelayString = "${app.deck.sweeper.initial-delay}")
+    public void sweepExpiredDecks() {
+        DeckProperties.SweeperSettings settings = deckProperties.getSweeper();
+        if (!settings.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        sweep(settings).doFinally(signal -> running.set(false))
+                .subscribe(null, ex -> log.error("Expired deck sweep failed", ex));
+    }
+
+    Mono<Long> sweep(DeckProperties.SweeperSettings settings) {
+        // Never delete a deck that findOrGenerate could still serve as stale.
+        Duration retention = settings.getRetention().compareTo(deckProperties.getStaleGrace()) < 0
+                ? deckProperties.getStaleGrace()
+                : settings.getRetention();
+        Instant cutoff = Instant.now().minus(retention);
+        int batchSize = Math.max(1, settings.getBatchSize());
+        Timer.Sample sample = Timer.start();
+
+        return deleteBatch(cutoff, Instant.EPOCH, 0L, batchSize)
+                .expand(batch -> batch.removed() < batchSize
+                        ? Mono.empty()
+                        : Mono.delay(settings.getBatchPause())
+                        .then(deleteBatch(cutoff, batch.lastExpiresAt(), batch.lastId(), batchSize)))
+                .take(Math.max(1, settings.getMaxBatchesPerRun()))
+                .reduce(new long[2], (totals, batch) -> {
+                    totals[0] += batch.removed();
+                    totals[1] += batch.slides();
+                    return totals;
+                })
+                .map(totals -> {
+                    sample.stop(runTimer);
+                    decksPerRun.record(totals[0]);
+                    if (totals[0] > 0) {
+                        log.info("Swept {} decks and {} slides that expired before {}", totals[0], totals[1], cutoff);
+                    }
+                    return totals[0];
+                });
+    }
+
+    private Mono<Batch> deleteBatch(Instant cutoff, Instant afterExpiresAt, Long afterId, int limit) {
+        return deleter.deleteBatch(cutoff, afterExpiresAt, afterId, limit)
+                .collectList()
+                .map(deleted -> {
+                    long slides = 0;
+                    for (ExpiredDeckDeleter.DeletedDeck deck : deleted) {
+                        deckStore.invalidate(deck.id());
+                        slides += deck.slideCount();
+                    }
+                    decksRemoved.increment(deleted.size());
+                    slidesRemoved.increment(slides);
+                    ExpiredDeckDeleter.DeletedDeck last = last(deleted);
+                    return last == null
+                            ? new Batch(0, 0, afterExpiresAt, afterId)
+                            : new Batch(deleted.size(), slides, last.expiresAt(), last.id());
+                });
+    }
+
+    private ExpiredDeckDeleter.DeletedDeck last(List<ExpiredDeckDeleter.DeletedDeck> deleted) {
+        ExpiredDeckDeleter.DeletedDeck last = null;
+        for (ExpiredDeckDeleter.DeletedDeck deck : deleted) {
+            if (last == null || deck.expiresAt().isAfter(last.expiresAt())
+                    || (deck.expiresAt().equals(last.expiresAt()) && deck.id() > last.id())) {
+                last = deck;
+            }
+        }
+        return last;
+    }
+
+    private record Batch(int removed, long slides, Instant lastExpiresAt, Long lastId) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.astrokiddo.service.impl;
+
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.store.ImageSearchStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deletes expired rows from the shared image search cache in batches.
+ */
+@Component
+public class ImageSearchCachePurger {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageSearchCachePurger.class);
+    private static final int MAX_BATCHES_PER_RUN = 100;
+
+    private final ImageSearchStore imageSearchStore;
+    private final NasaProperties nasaProperties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter removed;
+
+    public ImageSearchCachePurger(ImageSearchStore imageSearchStore, NasaProperties nasaProperties,
+                                  MeterRegistry meterRegistry) {
+        this.imageSearchStore = imageSearchStore;
+        this.nasaProperties = nasaProperties;
+        this.removed = meterRegistry.counter("astrokiddo.nasa.search.l2.purged");
+    }
+
+    @Scheduled(fixedDelayString = "${app.nasa.image-search-l2.purge-interval}",
+            initialDelayString = "${app.nasa.image-search-l2.purge-interval}")
+    public void purgeExpired() {
+        if (!imageSearchStore.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        int batchSize = Math.max(1, nasaProperties.getImageSearchL2().getPurgeBatchSize());
+        imageSearchStore.purgeExpired()
+                .expand(deleted -> deleted < batchSize ? Mono.empty() : imageSearchStore.purgeExpired())
+                .take(MAX_BATCHES_PER_RUN)
+                .reduce(0L, Long::sum)
+                .doFinally(signal -> running.set(false))
+                .subscribe(total -> {
+                    removed.increment(total);
+                    if (total > 0) {
+                        log.info("Purged {} expired image search cache entries", total);
+                    }
+                }, ex -> log.error("Image search cache purge failed", ex));
+    }
+}
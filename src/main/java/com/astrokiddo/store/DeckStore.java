@@ -1,21 +1,43 @@
 package com.astrokiddo.store;
 
 import com.astrokiddo.model.LessonDeck;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class DeckStore {
-    private final Map<String, LessonDeck> store = new ConcurrentHashMap<>();
+    private final Cache<Long, LessonDeck> lessonDeckCache;
+    private final Cache<String, Long> deckKeyIndexCache;
+    private final RenderedDeckStore renderedDeckStore;
 
-    public void save(LessonDeck d) {
-        store.put(d.getId(), d);
+    public DeckStore(Cache<Long, LessonDeck> lessonDeckCache,
+                     Cache<String, Long> deckKeyIndexCache,
+                     RenderedDeckStore renderedDeckStore) {
+        this.lessonDeckCache = lessonDeckCache;
+        this.deckKeyIndexCache = deckKeyIndexCache;
+        this.renderedDeckStore = renderedDeckStore;
     }
 
-    public Optional<LessonDeck> get(String id) {
-        return Optional.ofNullable(store.get(id));
+    public void save(Long id, String deckKey, LessonDeck deck) {
+        lessonDeckCache.put(id, deck);
+        if (deckKey != null) {
+            deckKeyIndexCache.put(deckKey, id);
+        }
+    }
+
+    public Optional<LessonDeck> get(Long id) {
+        return Optional.ofNullable(lessonDeckCache.getIfPresent(id));
+    }
+
+    public Optional<LessonDeck> getByDeckKey(String deckKey) {
+        Long id = deckKeyIndexCache.getIfPresent(deckKey);
+        return id == null ? Optional.empty() : get(id);
+    }
+
+    public void invalidate(Long id) {
+        lessonDeckCache.invalidate(id);
+        renderedDeckStore.invalidate(id);
     }
 }
@@ -0,0 +1,129 @@
+package com.astrokiddo.store;
+
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.nasa.ImageSearchResult;
+import com.astrokiddo.repository.nasa.ImageSearchCacheRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Shared second-level cache for NASA image search responses, stored gzip-compressed in Postgres so replicas and
+ * restarts reuse each other's lookups. Reads degrade to a miss on any database error; writes run in the background.
+ */
+@Component
+public class ImageSearchStore {
+    private static final Logger log = LoggerFactory.getLogger(ImageSearchStore.class);
+
+    private final ImageSearchCacheRepository repository;
+    private final ObjectMapper objectMapper;
+    private final NasaProperties.ImageSearchL2Settings settings;
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter readErrors;
+    private final Counter writes;
+    private final Counter writeFailures;
+    private final Counter writesDropped;
+    private final DistributionSummary payloadSize;
+
+    public ImageSearchStore(ImageSearchCacheRepository repository,
+                            ObjectMapper objectMapper,
+                            NasaProperties nasaProperties,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.settings = nasaProperties.getImageSearchL2();
+        this.hits = Counter.builder("astrokiddo.nasa.search.l2.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("astrokiddo.nasa.search.l2.requests").tag("result", "miss").register(meterRegistry);
+        this.readErrors = Counter.builder("astrokiddo.nasa.search.l2.requests").tag("result", "error").register(meterRegistry);
+        this.writes = Counter.builder("astrokiddo.nasa.search.l2.writes").tag("result", "success").register(meterRegistry);
+        this.writeFailures = Counter.builder("astrokiddo.nasa.search.l2.writes").tag("result", "failure").register(meterRegistry);
+        this.writesDropped = Counter.builder("astrokiddo.nasa.search.l2.writes").tag("result", "dropped").register(meterRegistry);
+        this.payloadSize = DistributionSummary.builder("astrokiddo.nasa.search.l2.payload")
+                .baseUnit("bytes")
+                .description("Compressed size of stored image search responses")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    public Mono<ImageSearchResult> find(String key) {
+        if (!settings.isEnabled()) {
+            return Mono.empty();
+        }
+        return repository.findPayload(key, Instant.now())
+                .publishOn(Schedulers.boundedElastic())
+                .map(this::decode)
+                .doOnNext(found -> hits.increment())
+                .switchIfEmpty(Mono.fromRunnable(misses::increment))
+                .onErrorResume(e -> {
+                    readErrors.increment();
+                    log.warn("Image search L2 read failed for '{}': {}", key, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Stores the response without blocking the caller. When too many writes are already pending the entry is
+     * skipped; the local cache still holds it and the next replica to miss will write it.
+     */
+    public void saveAsync(String key, ImageSearchResult response) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        if (pendingWrites.incrementAndGet() > settings.getMaxPendingWrites()) {
+            pendingWrites.decrementAndGet();
+            writesDropped.increment();
+            return;
+        }
+        Instant now = Instant.now();
+        Mono.fromCallable(() -> encode(response))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(payload -> payloadSize.record(payload.length))
+                .flatMap(payload -> repository.upsert(key, payload, now, now.plus(settings.getTtl())))
+                .doFinally(signal -> pendingWrites.decrementAndGet())
+                .subscribe(rows -> writes.increment(), e -> {
+                    writeFailures.increment();
+                    log.warn("Image search L2 write failed for '{}': {}", key, e.toString());
+                });
+    }
+
+    public Mono<Long> purgeExpired() {
+        return repository.deleteExpired(Instant.now(), settings.getPurgeBatchSize());
+    }
+
+    private byte[] encode(ImageSearchResult response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            objectMapper.writeValue(gzip, response);
+        }
+        return out.toByteArray();
+    }
+
+    private ImageSearchResult decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, ImageSearchResult.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode cached image search payload", e);
+        }
+    }
+}
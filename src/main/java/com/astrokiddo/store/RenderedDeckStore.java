@@ -0,0 +1,89 @@
+package com.astrokiddo.store;
+
+import com.astrokiddo.config.DeckProperties;
+import com.astrokiddo.model.LessonDeck;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds fully serialized deck responses, plain and gzip-encoded, for the version they were rendered from.
+ */
+@Component
+public class RenderedDeckStore {
+    private final Cache<Long, RenderedDeck> renderedDeckCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer renderTimer;
+
+    public RenderedDeckStore(Cache<Long, RenderedDeck> renderedDeckCache,
+                             ObjectMapper objectMapper,
+                             DeckProperties deckProperties,
+                             MeterRegistry meterRegistry) {
+        this.renderedDeckCache = renderedDeckCache;
+        this.objectMapper = objectMapper;
+        this.enabled = deckProperties.getRenderCache().isEnabled();
+        this.hits = Counter.builder("astrokiddo.deck.render.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("astrokiddo.deck.render.requests").tag("result", "miss").register(meterRegistry);
+        this.renderTimer = Timer.builder("astrokiddo.deck.render")
+                .description("Time spent serializing and compressing a deck response")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Mono<RenderedDeck> get(Long id, Instant version, Supplier<Mono<LessonDeck>> loader) {
+        RenderedDeck cached = renderedDeckCache.getIfPresent(id);
+        if (cached != null && cached.version().equals(version)) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+        misses.increment();
+        return loader.get()
+                .flatMap(deck -> Mono.fromCallable(() -> renderTimer.record(() -> render(deck, version)))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .doOnNext(rendered -> renderedDeckCache.put(id, rendered));
+    }
+
+    public void invalidate(Long id) {
+        renderedDeckCache.invalidate(id);
+    }
+
+    private RenderedDeck render(LessonDeck deck, Instant version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(deck);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            }
+            byte[] gzipped = out.toByteArray();
+            Instant renderedVersion = deck.getUpdatedAt() != null ? deck.getUpdatedAt() : version;
+            return new RenderedDeck(renderedVersion, deck.getExpiresAt(), json,
+                    gzipped.length < json.length ? gzipped : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not render deck " + deck.getId(), e);
+        }
+    }
+
+    public record RenderedDeck(Instant version, Instant expiresAt, byte[] json, byte[] gzip) {
+        public int weight() {
+            return 64 + json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
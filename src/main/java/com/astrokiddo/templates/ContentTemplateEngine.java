@@ -1,14 +1,12 @@
 package com.astrokiddo.templates;
 
-import com.astrokiddo.dto.ImageSearchResponseDto;
 import com.astrokiddo.model.Slide;
 import com.astrokiddo.model.SlideType;
-
-import java.util.List;
+import com.astrokiddo.nasa.ImageSearchResult;
 
 public class ContentTemplateEngine {
 
-    public Slide keyVisualFromImageItem(ImageSearchResponseDto.Item item) {
+    public Slide keyVisualFromImageItem(ImageSearchResult.Item item) {
         String title = firstTitle(item);
         String imageUrl = bestImageHref(item);
         String attribution = firstCenter(item);
@@ -16,7 +14,7 @@ public class ContentTemplateEngine {
         return new Slide(SlideType.KEY_VISUAL, title, text, imageUrl, attribution);
     }
 
-    public Slide explanation(String topic, ImageSearchResponseDto.Item contextItem) {
+    public Slide explanation(String topic, ImageSearchResult.Item contextItem) {
         String title = "What is " + topic + "?";
 
         String text = shorten(firstDescription(contextItem, "A concise overview focusing on key physical concepts and observational evidence."), 600);
@@ -40,7 +38,7 @@ public class ContentTemplateEngine {
         return new Slide(SlideType.QUESTION, title, text, null, null);
     }
 
-    public Slide furtherReading(String topic, ImageSearchResponseDto.Item item) {
+    public Slide furtherReading(String topic, ImageSearchResult.Item item) {
         String title = "Further reading";
         String page = detailsPage(item);
         String img = bestImageHref(item);
@@ -49,60 +47,46 @@ public class ContentTemplateEngine {
         return new Slide(SlideType.FURTHER_READING, title, text, img, "NASA Image & Video Library");
     }
 
-    private ImageSearchResponseDto.Data firstData(ImageSearchResponseDto.Item item) {
-        if (item == null) return null;
-        List<ImageSearchResponseDto.Data> data = item.getData();
-        if (data == null || data.isEmpty()) return null;
-        for (ImageSearchResponseDto.Data d : data) {
-            if (d != null) return d;
-        }
-        return null;
-    }
-
-    private String firstTitle(ImageSearchResponseDto.Item item) {
-        ImageSearchResponseDto.Data d = firstData(item);
-        String v = (d != null ? d.getTitle() : null);
+    private String firstTitle(ImageSearchResult.Item item) {
+        String v = (item != null ? item.title() : null);
         return isBlank(v) ? "Key Visual" : v;
     }
 
-    private String firstDescription(ImageSearchResponseDto.Item item, String def) {
-        ImageSearchResponseDto.Data d = firstData(item);
-        String v = (d != null ? d.getDescription() : null);
+    private String firstDescription(ImageSearchResult.Item item, String def) {
+        String v = (item != null ? item.description() : null);
         return isBlank(v) ? def : v;
     }
 
-    private String firstCenter(ImageSearchResponseDto.Item item) {
-        ImageSearchResponseDto.Data d = firstData(item);
-        String v = (d != null ? d.getCenter() : null);
+    private String firstCenter(ImageSearchResult.Item item) {
+        String v = (item != null ? item.center() : null);
         return isBlank(v) ? "NASA" : v;
     }
 
-    private String bestImageHref(ImageSearchResponseDto.Item item) {
-        if (item == null || item.getLinks() == null) return null;
+    private String bestImageHref(ImageSearchResult.Item item) {
+        if (item == null) return null;
 
-        for (ImageSearchResponseDto.Link l : item.getLinks()) {
-            if (l != null && equalsIgnoreCase(l.getRender()) && !isBlank(l.getHref())) {
-                return l.getHref();
+        for (ImageSearchResult.Link l : item.links()) {
+            if (equalsIgnoreCase(l.render()) && !isBlank(l.href())) {
+                return l.href();
             }
         }
-        for (ImageSearchResponseDto.Link l : item.getLinks()) {
-            if (l != null && !isBlank(l.getHref())) {
-                String href = l.getHref().toLowerCase();
-                if (href.endsWith(".jpg") || href.endsWith(".jpeg") || href.endsWith(".png")) return l.getHref();
+        for (ImageSearchResult.Link l : item.links()) {
+            if (!isBlank(l.href())) {
+                String href = l.href().toLowerCase();
+                if (href.endsWith(".jpg") || href.endsWith(".jpeg") || href.endsWith(".png")) return l.href();
             }
         }
-        for (ImageSearchResponseDto.Link l : item.getLinks()) {
-            if (l != null && !isBlank(l.getHref())) return l.getHref();
+        for (ImageSearchResult.Link l : item.links()) {
+            if (!isBlank(l.href())) return l.href();
         }
         return null;
     }
 
-    private String detailsPage(ImageSearchResponseDto.Item item) {
-        ImageSearchResponseDto.Data d = firstData(item);
-        if (d != null && !isBlank(d.getNasaId())) {
-            return "https://images.nasa.gov/details-" + d.getNasaId();
+    private String detailsPage(ImageSearchResult.Item item) {
+        if (item != null && !isBlank(item.nasaId())) {
+            return "https://images.nasa.gov/details-" + item.nasaId();
         }
-        return !isBlank(item != null ? item.getHref() : null) ? item.getHref() : null;
+        return !isBlank(item != null ? item.href() : null) ? item.href() : null;
     }
 
     private boolean isBlank(String s) {
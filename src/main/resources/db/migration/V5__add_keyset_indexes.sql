@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_decks_created_at_id ON decks (created_at DESC, id DESC);
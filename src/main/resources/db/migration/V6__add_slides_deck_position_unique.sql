@@ -0,0 +1,8 @@
+-- Keep the earliest slide for each position so existing duplicates do not block the unique index.
+DELETE FROM slides a
+USING slides b
+WHERE a.deck_id = b.deck_id
+  AND a.position_index = b.position_index
+  AND a.id > b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_slides_deck_position ON slides (deck_id, position_index);
@@ -0,0 +1,14 @@
+-- Runs outside a transaction (see the .conf file) so the indexes can be built without blocking deck writes.
+-- The search document is an index expression rather than a stored column, which would rewrite the table.
+-- Keep the expression in sync with DefaultDeckCrudServiceImpl.SEARCH_DOCUMENT, or the index is not used.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_decks_topic_trgm ON decks USING GIN (topic gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_decks_nasa_source_trgm ON decks USING GIN ((nasa_source::text) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_decks_search_document ON decks USING GIN ((
+    setweight(to_tsvector('simple', coalesce(topic, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(title, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'C') ||
+    setweight(jsonb_to_tsvector('simple', coalesce(nasa_source, '{}'::jsonb), '["string"]'), 'D')
+));
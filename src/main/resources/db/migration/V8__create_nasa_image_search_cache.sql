@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS nasa_image_search_cache (
+    cache_key  TEXT PRIMARY KEY,
+    payload    BYTEA NOT NULL,
+    fetched_at TIMESTAMPTZ NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_nasa_image_search_cache_expires_at ON nasa_image_search_cache (expires_at);
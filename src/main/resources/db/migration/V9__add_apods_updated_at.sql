@@ -0,0 +1,3 @@
+-- Last-Modified source for GET /api/apod. Existing rows take the migration time; the constant default avoids
+-- rewriting the table.
+ALTER TABLE apods ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
@@ -0,0 +1,66 @@
+package com.astrokiddo.controller;
+
+import com.astrokiddo.dto.ApodResponseDto;
+import com.astrokiddo.service.ApodService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApodControllerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 1);
+    private static final Instant UPDATED_AT = Instant.parse("2026-03-01T05:00:00Z");
+
+    private final ApodService apodService = mock(ApodService.class);
+    private final WebTestClient client = WebTestClient.bindToController(new ApodController(apodService)).build();
+
+    @Test
+    void conditionalRequestForAStoredDateSkipsLoadingTheApod() {
+        when(apodService.getVersion(DATE)).thenReturn(Mono.just(new ApodService.Version(DATE, UPDATED_AT)));
+        when(apodService.getOrCreateApod(DATE)).thenReturn(Mono.just(apod()));
+
+        String eTag = client.get().uri("/api/apod?date=2026-03-01").exchange()
+                .expectStatus().isOk()
+                .expectHeader().lastModified(UPDATED_AT.toEpochMilli())
+                .returnResult(ApodResponseDto.class)
+                .getResponseHeaders().getETag();
+
+        client.get().uri("/api/apod?date=2026-03-01").header("If-None-Match", eTag).exchange()
+                .expectStatus().isNotModified();
+        client.get().uri("/api/apod?date=2026-03-01").header("If-Modified-Since", "Sun, 01 Mar 2026 05:00:00 GMT")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        verify(apodService, times(1)).getOrCreateApod(any());
+    }
+
+    @Test
+    void dateNotStoredYetIsFetchedAndCarriesTheNewVersion() {
+        when(apodService.getVersion(DATE))
+                .thenReturn(Mono.empty(), Mono.just(new ApodService.Version(DATE, UPDATED_AT)));
+        when(apodService.getOrCreateApod(DATE)).thenReturn(Mono.just(apod()));
+
+        client.get().uri("/api/apod?date=2026-03-01").header("If-None-Match", "\"stale\"").exchange()
+                .expectStatus().isOk()
+                .expectHeader().lastModified(UPDATED_AT.toEpochMilli())
+                .expectBody().jsonPath("$.title").isEqualTo("Spiral");
+
+        verify(apodService, times(1)).getOrCreateApod(DATE);
+    }
+
+    private static ApodResponseDto apod() {
+        ApodResponseDto apod = new ApodResponseDto();
+        apod.setDate(DATE.toString());
+        apod.setTitle("Spiral");
+        return apod;
+    }
+}
@@ -0,0 +1,77 @@
+package com.astrokiddo.nasa;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageSearchDecoderTest {
+
+    @Test
+    void decodesLeadingItemsAcrossChunksAndCancelsTheRest() {
+        StringBuilder json = new StringBuilder("{\"collection\":{\"version\":\"1.0\",\"items\":[");
+        for (int i = 0; i < 50; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"href\":\"https://images/").append(i).append("/collection.json\",")
+                    .append("\"data\":[{\"center\":\"JPL\",\"title\":\"Title ").append(i).append("\",")
+                    .append("\"keywords\":[\"Saturn\",\"rings\"],\"nasa_id\":\"id-").append(i).append("\",")
+                    .append("\"description\":\"A \\\"quoted\\\" description ").append(i).append("\"},")
+                    .append("{\"title\":\"ignored\"}],")
+                    .append("\"links\":[{\"href\":\"https://img/").append(i).append("~thumb.jpg\",\"render\":\"image\"},")
+                    .append("{\"href\":\"https://img/").append(i).append(".srt\",\"rel\":\"captions\"}]}");
+        }
+        json.append("],\"metadata\":{\"total_hits\":50}}}");
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ImageSearchResult result = ImageSearchDecoder.decode(chunks(json.toString(), 7)
+                .doOnCancel(() -> cancelled.set(true)), 3).block();
+
+        assertEquals(3, result.items().size());
+        ImageSearchResult.Item second = result.items().get(1);
+        assertEquals("https://images/1/collection.json", second.href());
+        assertEquals("id-1", second.nasaId());
+        assertEquals("Title 1", second.title());
+        assertEquals("A \"quoted\" description 1", second.description());
+        assertEquals("JPL", second.center());
+        assertEquals(List.of(new ImageSearchResult.Link("https://img/1~thumb.jpg", "image"),
+                new ImageSearchResult.Link("https://img/1.srt", null)), second.links());
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void returnsWhatIsThereWhenFewerItemsThanRequested() {
+        String json = "{\"collection\":{\"items\":[{\"data\":[{\"title\":\"Only\"}]}],\"links\":[{\"href\":\"x\"}]}}";
+
+        ImageSearchResult result = ImageSearchDecoder.decode(chunks(json, 4), 3).block();
+
+        assertEquals(1, result.items().size());
+        assertEquals("Only", result.items().get(0).title());
+        assertNull(result.items().get(0).href());
+        assertTrue(result.items().get(0).links().isEmpty());
+    }
+
+    @Test
+    void emptyBodyDecodesToNoItems() {
+        assertTrue(ImageSearchDecoder.decode(Flux.empty(), 3).block().items().isEmpty());
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> parts = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += size) {
+            byte[] part = new byte[Math.min(size, bytes.length - i)];
+            System.arraycopy(bytes, i, part, 0, part.length);
+            parts.add(part);
+        }
+        return Flux.fromIterable(parts).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+}
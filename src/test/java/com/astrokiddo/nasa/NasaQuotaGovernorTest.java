@@ -0,0 +1,134 @@
+package com.astrokiddo.nasa;
+
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.config.ResilienceProperties;
+import com.astrokiddo.resilience.Upstream;
+import com.astrokiddo.resilience.UpstreamPolicies;
+import com.astrokiddo.service.RequestPriority;
+import com.astrokiddo.service.SharedPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NasaQuotaGovernorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void queueWaitLongerThanTheSlowCallThresholdLeavesTheBreakerClosed() {
+        NasaQuotaGovernor governor = new NasaQuotaGovernor(nasaProperties(1, 0), meterRegistry);
+        UpstreamPolicies policies = new UpstreamPolicies(resilienceProperties(), meterRegistry);
+
+        // Spend the only token so the next background call queues for most of an hour.
+        StepVerifier.create(nasaCall(governor).transform(policies.policy(Upstream.NASA_APOD, governor)))
+                .expectNext("apod")
+                .verifyComplete();
+
+        StepVerifier.withVirtualTime(() -> nasaCall(governor)
+                        .transform(policies.<String>policy(Upstream.NASA_APOD, governor))
+                        .contextWrite(RequestPriority.background()))
+                .expectSubscription()
+                .thenAwait(Duration.ofHours(1))
+                .expectNext("apod")
+                .verifyComplete();
+
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "nasa-apod").tag("state", "closed").gauge().value());
+        assertEquals(2, meterRegistry.get("resilience4j.circuitbreaker.calls")
+                .tag("name", "nasa-apod").tag("kind", "successful").timer().count());
+        assertEquals(0, meterRegistry.get("resilience4j.circuitbreaker.calls")
+                .tag("name", "nasa-apod").tag("kind", "failed").timer().count());
+    }
+
+    @Test
+    void cancelledQueuedCallReturnsItsToken() {
+        NasaQuotaGovernor governor = new NasaQuotaGovernor(nasaProperties(2, 0.5), meterRegistry);
+
+        StepVerifier.create(governor.admit(nasaCall(governor)))
+                .expectNext("apod")
+                .verifyComplete();
+        assertEquals(1, remaining(), 0.01);
+
+        // Background calls must leave half the bucket, so this one queues for half an hour.
+        StepVerifier.withVirtualTime(() -> governor.admit(nasaCall(governor))
+                        .contextWrite(RequestPriority.background()))
+                .expectSubscription()
+                .thenAwait(Duration.ofMinutes(10))
+                .thenCancel()
+                .verify();
+
+        assertEquals(1, remaining(), 0.01);
+    }
+
+    @Test
+    void queuedBackgroundLoadIsAdmittedWhenAnInteractiveCallerJoins() {
+        NasaQuotaGovernor governor = new NasaQuotaGovernor(nasaProperties(10, 0.2), meterRegistry);
+        for (int i = 0; i < 8; i++) {
+            StepVerifier.create(governor.admit(nasaCall(governor))).expectNext("apod").verifyComplete();
+        }
+
+        // Down to the background reserve: the shared load queues for several minutes until a user joins it.
+        SharedPriority priority = SharedPriority.startedBy(RequestPriority.background().apply(Context.empty()));
+        StepVerifier.withVirtualTime(() -> governor.admit(nasaCall(governor)).contextWrite(priority.bind()))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(10))
+                .then(() -> priority.join(Context.empty()))
+                .expectNext("apod")
+                .verifyComplete();
+
+        assertEquals(1, requests("background", "queued"));
+        assertEquals(9, requests("interactive", "admitted"));
+        assertEquals(1, remaining(), 0.01);
+    }
+
+    private double requests(String priority, String outcome) {
+        return meterRegistry.get("astrokiddo.nasa.quota.requests")
+                .tag("priority", priority).tag("outcome", outcome).counter().count();
+    }
+
+    private double remaining() {
+        return meterRegistry.get("astrokiddo.nasa.quota.remaining").gauge().value();
+    }
+
+    /**
+     * A NASA request that passes through the governor's exchange filter, as the real web clients do.
+     */
+    private static Mono<String> nasaCall(NasaQuotaGovernor governor) {
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("https://api.nasa.gov/planetary/apod"))
+                .build();
+        return governor.filter(request, r -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+                .thenReturn("apod");
+    }
+
+    private static NasaProperties nasaProperties(int hourlyLimit, double backgroundReserve) {
+        NasaProperties properties = new NasaProperties();
+        properties.getQuota().setHourlyLimit(hourlyLimit);
+        properties.getQuota().setBackgroundReserve(backgroundReserve);
+        properties.getQuota().setBackgroundMaxWait(Duration.ofHours(2));
+        return properties;
+    }
+
+    private static ResilienceProperties resilienceProperties() {
+        ResilienceProperties.UpstreamSettings apod = new ResilienceProperties.UpstreamSettings();
+        apod.setTimeout(Duration.ofSeconds(2));
+        apod.getRetry().setMaxAttempts(1);
+        apod.getCircuitBreaker().setSlowCallDuration(Duration.ofSeconds(1));
+        apod.getCircuitBreaker().setMinimumNumberOfCalls(1);
+        apod.getCircuitBreaker().setSlidingWindowSize(1);
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.getUpstreams().put(Upstream.NASA_APOD.id(), apod);
+        return properties;
+    }
+}
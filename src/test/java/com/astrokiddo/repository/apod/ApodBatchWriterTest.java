@@ -0,0 +1,104 @@
+package com.astrokiddo.repository.apod;
+
+import com.astrokiddo.entity.apod.Apod;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the multi-row APOD insert against a disposable PostgreSQL database, e.g.
+ * {@code ASTROKIDDO_BENCH_JDBC_URL=jdbc:postgresql://localhost:5432/astrokiddo_bench mvn test -Dtest=ApodBatchWriterTest}
+ */
+@EnabledIfEnvironmentVariable(named = "ASTROKIDDO_BENCH_JDBC_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ApodBatchWriterTest {
+
+    private static final LocalDate FIRST = LocalDate.of(1999, 1, 1);
+
+    private DatabaseClient databaseClient;
+    private ApodRepository apodRepository;
+    private ApodBatchWriter writer;
+
+    @BeforeAll
+    void setUp() {
+        String jdbcUrl = System.getenv("ASTROKIDDO_BENCH_JDBC_URL");
+        String user = System.getenv().getOrDefault("ASTROKIDDO_BENCH_USER", "postgres");
+        String password = System.getenv().getOrDefault("ASTROKIDDO_BENCH_PASSWORD", "postgres");
+        Flyway.configure().dataSource(jdbcUrl, user, password).locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load().migrate();
+
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions
+                .parse(jdbcUrl.replaceFirst("^jdbc:", "r2dbc:pool:"))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, user)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(connectionFactory);
+        databaseClient = template.getDatabaseClient();
+        apodRepository = new R2dbcRepositoryFactory(template).getRepository(ApodRepository.class);
+        writer = new ApodBatchWriter(template);
+        cleanUp();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        databaseClient.sql("DELETE FROM apods WHERE apod_date BETWEEN :first AND :last")
+                .bind("first", FIRST)
+                .bind("last", FIRST.plusDays(9))
+                .then()
+                .block();
+    }
+
+    @Test
+    void insertsOnlyMissingDatesAndReturnsTheNewRows() {
+        apodRepository.save(apod(FIRST.plusDays(1), "Stored")).block();
+
+        List<Apod> inserted = writer.insertMissing(List.of(
+                        apod(FIRST, "New"), apod(FIRST.plusDays(1), "Fetched again"), apod(FIRST.plusDays(2), null)))
+                .collectList()
+                .block();
+
+        assertNotNull(inserted);
+        inserted.sort(Comparator.comparing(Apod::getApodDate));
+        assertEquals(List.of(FIRST, FIRST.plusDays(2)), inserted.stream().map(Apod::getApodDate).toList());
+        assertTrue(inserted.stream().allMatch(apod -> apod.getId() != null));
+        assertEquals("New", inserted.get(0).getTitle());
+        assertNull(inserted.get(1).getTitle());
+        assertEquals("Stored", apodRepository.findByApodDate(FIRST.plusDays(1)).map(Apod::getTitle).block());
+        assertEquals(3L, apodRepository.countByApodDateBetween(FIRST, FIRST.plusDays(9)).block());
+    }
+
+    @Test
+    void emptyBatchIssuesNoStatement() {
+        assertEquals(0L, writer.insertMissing(List.of()).count().block());
+    }
+
+    private static Apod apod(LocalDate date, String title) {
+        Apod apod = new Apod();
+        apod.setApodDate(date);
+        apod.setTitle(title);
+        apod.setMediaType("image");
+        apod.setUrl("https://apod.nasa.gov/" + date + ".jpg");
+        return apod;
+    }
+}
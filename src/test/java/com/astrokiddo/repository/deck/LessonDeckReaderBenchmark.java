@@ -0,0 +1,174 @@
+package com.astrokiddo.repository.deck;
+
+import com.astrokiddo.entity.deck.Deck;
+import com.astrokiddo.model.LessonDeck;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares single-statement deck hydration with the two-query (deck, then slides) path.
+ * Needs a disposable PostgreSQL database, e.g.
+ * {@code ASTROKIDDO_BENCH_JDBC_URL=jdbc:postgresql://localhost:5432/astrokiddo_bench mvn test -Dtest=LessonDeckReaderBenchmark}
+ */
+@EnabledIfEnvironmentVariable(named = "ASTROKIDDO_BENCH_JDBC_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LessonDeckReaderBenchmark {
+
+    private static final int DECKS = 500;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 3000;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private DatabaseClient databaseClient;
+    private DeckRepository deckRepository;
+    private SlideRepository slideRepository;
+    private LessonDeckReader reader;
+    private List<Long> deckIds;
+
+    @BeforeAll
+    void setUp() {
+        String jdbcUrl = System.getenv("ASTROKIDDO_BENCH_JDBC_URL");
+        String user = System.getenv().getOrDefault("ASTROKIDDO_BENCH_USER", "postgres");
+        String password = System.getenv().getOrDefault("ASTROKIDDO_BENCH_PASSWORD", "postgres");
+        Flyway.configure().dataSource(jdbcUrl, user, password).locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load().migrate();
+
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions
+                .parse(jdbcUrl.replaceFirst("^jdbc:", "r2dbc:pool:"))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, user)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(connectionFactory);
+        R2dbcRepositoryFactory factory = new R2dbcRepositoryFactory(template);
+        databaseClient = template.getDatabaseClient();
+        deckRepository = factory.getRepository(DeckRepository.class);
+        slideRepository = factory.getRepository(SlideRepository.class);
+        reader = new LessonDeckReader(databaseClient, objectMapper, new LessonDeckMapper(objectMapper));
+
+        cleanUp();
+        databaseClient.sql("""
+                        INSERT INTO decks (deck_key, topic, grade_level, content_json, created_at, updated_at, expires_at)
+                        SELECT 'bench|' || g, 'Bench topic ' || g, '5', '{"topic":"Bench"}'::jsonb,
+                               NOW(), NOW(), NOW() + INTERVAL '60 days'
+                        FROM generate_series(1, :decks) g
+                        """)
+                .bind("decks", DECKS)
+                .then()
+                .block();
+        databaseClient.sql("""
+                        INSERT INTO slides (deck_id, slide_uuid, type, title, text, position_index)
+                        SELECT d.id, gen_random_uuid(), 'EXPLANATION', 'Slide ' || p, repeat('Lorem ipsum ', 40), p
+                        FROM decks d CROSS JOIN generate_series(0, 4) p
+                        WHERE d.deck_key LIKE 'bench|%'
+                        """)
+                .then()
+                .block();
+        deckIds = databaseClient.sql("SELECT id FROM decks WHERE deck_key LIKE 'bench|%'")
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList()
+                .block();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        databaseClient.sql("DELETE FROM decks WHERE deck_key LIKE 'bench|%'").then().block();
+    }
+
+    @Test
+    void compareHydrationPaths() {
+        LongFunction<Mono<LessonDeck>> twoQueries = id -> deckRepository.findById(id)
+                .flatMap(deck -> slideRepository.findByDeckIdOrderByPositionIndexAsc(id)
+                        .collectList()
+                        .map(slides -> {
+                            deck.setSlides(slides);
+                            return toModel(deck);
+                        }));
+        LongFunction<Mono<LessonDeck>> singleStatement = id -> reader.findById(id).map(LessonDeckReader.HydratedDeck::deck);
+
+        Long sample = deckIds.get(0);
+        assertEquals(twoQueries.apply(sample).block().getSlides().size(),
+                singleStatement.apply(sample).block().getSlides().size());
+
+        report("two queries", measure(twoQueries));
+        report("json_agg", measure(singleStatement));
+        report("two queries", measure(twoQueries));
+        report("json_agg", measure(singleStatement));
+    }
+
+    private long[] measure(LongFunction<Mono<LessonDeck>> loader) {
+        for (int i = 0; i < WARMUP; i++) {
+            loader.apply(randomId()).block();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            loader.apply(randomId()).block();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private void report(String name, long[] sorted) {
+        System.out.printf("%-12s mean=%.3fms p50=%.3fms p99=%.3fms%n", name,
+                Arrays.stream(sorted).average().orElse(0) / 1e6,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+
+    private Long randomId() {
+        return deckIds.get(ThreadLocalRandom.current().nextInt(deckIds.size()));
+    }
+
+    private LessonDeck toModel(Deck deck) {
+        try {
+            LessonDeck model = new LessonDeck(deck.getTopic(), deck.getGradeLevel(), deck.getLocale());
+            model.setId("deck-" + deck.getId());
+            model.setSlides(deck.getSlides().stream().map(slide -> {
+                com.astrokiddo.model.Slide s = new com.astrokiddo.model.Slide();
+                s.setSlideUuid(slide.getSlideUuid());
+                s.setType(slide.getType());
+                s.setTitle(slide.getTitle());
+                s.setText(slide.getText());
+                s.setImageUrl(slide.getImageUrl());
+                s.setAttribution(slide.getAttribution());
+                s.setTtsAudioUrl(slide.getTtsAudioUrl());
+                return s;
+            }).toList());
+            LessonDeck stored = objectMapper.readValue(deck.getContentJson().asString(), LessonDeck.class);
+            model.setEnrichment(stored.getEnrichment());
+            return model;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.astrokiddo.resilience;
+
+import com.astrokiddo.config.ResilienceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void hedgeSentAfterTheThresholdWinsOverASlowPrimary() {
+        Hedger hedger = new Hedger("nasa-images", settings(20, 0.1), meterRegistry);
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(slowThenFast()))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(1))
+                .expectNext("hedge")
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+        assertEquals(1, counter("astrokiddo.upstream.hedge.sent"));
+        assertEquals(1, counter("astrokiddo.upstream.hedge.wins"));
+    }
+
+    @Test
+    void primaryFailingBeforeTheThresholdIsNotHedged() {
+        Hedger hedger = new Hedger("nasa-images", settings(20, 0.1), meterRegistry);
+        Supplier<Mono<String>> failing = () -> {
+            calls.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(200)).then(Mono.error(new IOException("connection reset")));
+        };
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(failing))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(200))
+                .expectError(IOException.class)
+                .verifyThenAssertThat()
+                .hasNotDroppedErrors();
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(failing).onErrorResume(e -> Mono.empty()))
+                .thenAwait(Duration.ofSeconds(5))
+                .verifyComplete();
+        assertEquals(2, calls.get());
+        assertEquals(0, counter("astrokiddo.upstream.hedge.sent"));
+    }
+
+    @Test
+    void hedgesBeyondTheBudgetAreDenied() {
+        // A ten-sample window at a 10% ratio leaves room for one hedge; the next slow call waits for its primary.
+        Hedger hedger = new Hedger("nasa-images", settings(10, 0.1), meterRegistry);
+
+        StepVerifier.withVirtualTime(() -> hedger.execute(slowThenFast()))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("hedge")
+                .verifyComplete();
+        calls.set(0);
+        StepVerifier.withVirtualTime(() -> hedger.execute(() -> {
+                    calls.incrementAndGet();
+                    return Mono.delay(Duration.ofSeconds(3)).thenReturn("primary");
+                }))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(3))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, counter("astrokiddo.upstream.hedge.sent"));
+        assertEquals(1, counter("astrokiddo.upstream.hedge.denied"));
+    }
+
+    @Test
+    void ratioBudgetEarnsCreditPerRequestUpToItsCap() {
+        RatioBudget budget = new RatioBudget(0.5, 2);
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+
+        budget.onRequest();
+        assertFalse(budget.tryAcquire());
+        budget.onRequest();
+        assertTrue(budget.tryAcquire());
+
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+        assertEquals(2, budget.available());
+    }
+
+    /**
+     * The first attempt takes ten seconds; any later attempt answers at once.
+     */
+    private Supplier<Mono<String>> slowThenFast() {
+        return () -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(10)).thenReturn("primary")
+                : Mono.just("hedge");
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("upstream", "nasa-images").counter().count();
+    }
+
+    private static ResilienceProperties.HedgeSettings settings(int sampleWindow, double maxRatio) {
+        ResilienceProperties.HedgeSettings settings = new ResilienceProperties.HedgeSettings();
+        settings.setEnabled(true);
+        settings.setInitialDelay(Duration.ofSeconds(1));
+        settings.setMinSamples(sampleWindow);
+        settings.setSampleWindow(sampleWindow);
+        settings.setMaxRatio(maxRatio);
+        return settings;
+    }
+}
@@ -0,0 +1,103 @@
+package com.astrokiddo.resilience;
+
+import com.astrokiddo.config.ResilienceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamPoliciesTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void retriesTransientFailuresUntilTheCallSucceeds() {
+        UpstreamPolicies policies = new UpstreamPolicies(properties(3, 0.2, 10), meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() < 3
+                ? Mono.error(serverError(HttpStatus.SERVICE_UNAVAILABLE))
+                : Mono.just("apod"));
+
+        StepVerifier.withVirtualTime(() -> call.transform(policies.policy(Upstream.NASA_APOD)))
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNext("apod")
+                .verifyComplete();
+
+        assertEquals(3, attempts.get());
+        assertEquals(2, counter("astrokiddo.upstream.retries"));
+    }
+
+    @Test
+    void doesNotRetryClientErrorsOrLocalRejections() {
+        UpstreamPolicies policies = new UpstreamPolicies(properties(3, 0.2, 10), meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.create(Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.<String>error(serverError(HttpStatus.BAD_REQUEST));
+                }).transform(policies.policy(Upstream.NASA_APOD)))
+                .verifyError(WebClientResponseException.BadRequest.class);
+        StepVerifier.create(Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.<String>error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS));
+                }).transform(policies.policy(Upstream.NASA_APOD)))
+                .verifyError(ResponseStatusException.class);
+
+        assertEquals(2, attempts.get());
+        assertEquals(0, counter("astrokiddo.upstream.retries"));
+    }
+
+    @Test
+    void emptyRetryBudgetStopsRetriesAcrossCalls() {
+        // No credit is earned per call, so the two starting credits are all the retries the upstream gets.
+        UpstreamPolicies policies = new UpstreamPolicies(properties(3, 0, 2), meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(serverError(HttpStatus.BAD_GATEWAY));
+        });
+
+        StepVerifier.withVirtualTime(() -> call.transform(policies.policy(Upstream.NASA_APOD)))
+                .thenAwait(Duration.ofMinutes(1))
+                .verifyError(WebClientResponseException.BadGateway.class);
+        assertEquals(3, attempts.get());
+
+        StepVerifier.withVirtualTime(() -> call.transform(policies.policy(Upstream.NASA_APOD)))
+                .thenAwait(Duration.ofMinutes(1))
+                .verifyError(WebClientResponseException.BadGateway.class);
+        assertEquals(4, attempts.get());
+
+        assertEquals(2, counter("astrokiddo.upstream.retries"));
+        assertEquals(1, counter("astrokiddo.upstream.retry.budget.exhausted"));
+        assertEquals(0, meterRegistry.get("astrokiddo.upstream.retry.budget")
+                .tag("upstream", "nasa-apod").gauge().value());
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("upstream", "nasa-apod").counter().count();
+    }
+
+    private static WebClientResponseException serverError(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null);
+    }
+
+    private static ResilienceProperties properties(int maxAttempts, double budgetRatio, double budgetMaxCredit) {
+        ResilienceProperties.UpstreamSettings apod = new ResilienceProperties.UpstreamSettings();
+        apod.getRetry().setMaxAttempts(maxAttempts);
+        apod.getRetry().setBudgetRatio(budgetRatio);
+        apod.getRetry().setBudgetMaxCredit(budgetMaxCredit);
+        apod.getCircuitBreaker().setEnabled(false);
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.getUpstreams().put(Upstream.NASA_APOD.id(), apod);
+        return properties;
+    }
+}
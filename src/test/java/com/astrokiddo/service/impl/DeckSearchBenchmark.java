@@ -0,0 +1,154 @@
+package com.astrokiddo.service.impl;
+
+import com.astrokiddo.entity.deck.Deck;
+import com.astrokiddo.repository.deck.DeckRepository;
+import com.astrokiddo.repository.deck.SlideWriter;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.connection.SingleConnectionFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares deck filter latency with the trigram/full-text indexes disabled (the old sequential scan) and enabled,
+ * plus the ranked search mode. Seeds {@code ASTROKIDDO_BENCH_DECKS} decks (default 1M) into a disposable database:
+ * {@code ASTROKIDDO_BENCH_JDBC_URL=jdbc:postgresql://localhost:5432/astrokiddo_bench mvn test -Dtest=DeckSearchBenchmark}
+ */
+@EnabledIfEnvironmentVariable(named = "ASTROKIDDO_BENCH_JDBC_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DeckSearchBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 30;
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    private SingleConnectionFactory connectionFactory;
+    private DatabaseClient databaseClient;
+    private DefaultDeckCrudServiceImpl crudService;
+
+    @BeforeAll
+    void setUp() {
+        String jdbcUrl = System.getenv("ASTROKIDDO_BENCH_JDBC_URL");
+        String user = System.getenv().getOrDefault("ASTROKIDDO_BENCH_USER", "postgres");
+        String password = System.getenv().getOrDefault("ASTROKIDDO_BENCH_PASSWORD", "postgres");
+        int decks = Integer.parseInt(System.getenv().getOrDefault("ASTROKIDDO_BENCH_DECKS", "1000000"));
+        Flyway.configure().dataSource(jdbcUrl, user, password).locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load().migrate();
+
+        // One physical connection so the planner settings below apply to every measured query.
+        connectionFactory = new SingleConnectionFactory(ConnectionFactories.get(ConnectionFactoryOptions
+                .parse(jdbcUrl.replaceFirst("^jdbc:", "r2dbc:"))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, user)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build()));
+        connectionFactory.setSuppressClose(true);
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(connectionFactory);
+        databaseClient = template.getDatabaseClient();
+        crudService = new DefaultDeckCrudServiceImpl(
+                new R2dbcRepositoryFactory(template).getRepository(DeckRepository.class),
+                template,
+                new SlideWriter(template),
+                TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory)));
+
+        cleanUp();
+        databaseClient.sql("""
+                        INSERT INTO decks (deck_key, topic, grade_level, locale, title, description, nasa_source,
+                                           created_at, updated_at, expires_at)
+                        SELECT 'bench-search|' || g, t.topic, (g % 8)::text, 'en', t.topic,
+                               'Lesson deck for topic: ' || t.topic,
+                               jsonb_build_object('topic', t.topic, 'source', t.source),
+                               NOW() - (g || ' seconds')::interval, NOW(), NOW() + INTERVAL '60 days'
+                        FROM generate_series(1, :decks) g
+                        CROSS JOIN LATERAL (SELECT
+                            (ARRAY['Saturn', 'Venus', 'Mars', 'Jupiter', 'Pluto', 'Neptune', 'Uranus', 'Mercury',
+                                   'Andromeda', 'Orion', 'Hubble', 'Apollo', 'Artemis', 'Voyager', 'Cassini',
+                                   'Kepler', 'Webb', 'Sirius', 'Vega', 'Betelgeuse'])[1 + g % 20] || ' '
+                            || (ARRAY['rings', 'storms', 'moons', 'orbit', 'craters', 'volcanoes', 'nebula',
+                                      'galaxy', 'telescope', 'mission', 'comet', 'eclipse', 'aurora', 'gravity',
+                                      'seasons', 'dust', 'clouds'])[1 + (g / 20) % 17] || ' ' || g AS topic,
+                            (ARRAY['NASA images', 'NASA images + AI enrichment', 'APOD archive'])[1 + g % 3]
+                                || ' batch ' || (g % 997) AS source) t
+                        """)
+                .bind("decks", decks)
+                .then()
+                .block();
+        databaseClient.sql("ANALYZE decks").then().block();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        databaseClient.sql("DELETE FROM decks WHERE deck_key LIKE 'bench-search|%'").then().block();
+    }
+
+    @Test
+    void compareFilterLatency() {
+        Supplier<Mono<Page<Deck>>> topicFilter = () -> crudService.findAll("clouds", null, null, null, null,
+                null, null, PAGE);
+        Supplier<Mono<Page<Deck>>> sourceFilter = () -> crudService.findAll(null, null, null, "batch 42\"", null,
+                null, null, PAGE);
+        Supplier<Mono<Page<Deck>>> rankedSearch = () -> crudService.findAll(null, null, null, null,
+                "betelgeuse clouds", null, null, PAGE);
+        Supplier<Mono<Page<Deck>>> partialSearch = () -> crudService.findAll(null, null, null, null,
+                "telgeu", null, null, PAGE);
+
+        setIndexScans(false);
+        long expectedTopicTotal = topicFilter.get().block().getTotalElements();
+        report("topic LIKE, seq scan", measure(topicFilter));
+        report("source LIKE, seq scan", measure(sourceFilter));
+
+        setIndexScans(true);
+        assertEquals(expectedTopicTotal, topicFilter.get().block().getTotalElements());
+        assertTrue(rankedSearch.get().block().getContent().get(0).getTopic().startsWith("Betelgeuse clouds"));
+        report("topic LIKE, trigram", measure(topicFilter));
+        report("source LIKE, trigram", measure(sourceFilter));
+        report("search, ranked", measure(rankedSearch));
+        report("search, partial word", measure(partialSearch));
+    }
+
+    private void setIndexScans(boolean enabled) {
+        databaseClient.sql("SET enable_bitmapscan = " + enabled).then().block();
+        databaseClient.sql("SET enable_indexscan = " + enabled).then().block();
+    }
+
+    private long[] measure(Supplier<Mono<Page<Deck>>> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get().block();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get().block();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private void report(String name, long[] sorted) {
+        System.out.printf("%-22s mean=%.2fms p50=%.2fms p99=%.2fms%n", name,
+                Arrays.stream(sorted).average().orElse(0) / 1e6,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+}
@@ -0,0 +1,123 @@
+package com.astrokiddo.service.impl;
+
+import com.astrokiddo.cloudflare.CloudflareTtsClient;
+import com.astrokiddo.config.AppProperties;
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.dto.ApodResponseDto;
+import com.astrokiddo.entity.apod.Apod;
+import com.astrokiddo.nasa.ApodClient;
+import com.astrokiddo.repository.apod.ApodBatchWriter;
+import com.astrokiddo.repository.apod.ApodRepository;
+import com.astrokiddo.storage.R2StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultApodServiceImplTest {
+
+    private static final LocalDate MIN_DATE = LocalDate.of(2025, 12, 1);
+
+    private final ApodRepository apodRepository = mock(ApodRepository.class);
+    private final ApodBatchWriter apodBatchWriter = mock(ApodBatchWriter.class);
+    private final ApodClient apodClient = mock(ApodClient.class);
+    private DefaultApodServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        NasaProperties nasaProperties = new NasaProperties();
+        nasaProperties.setApodMinDate(MIN_DATE);
+        nasaProperties.getApodBackfill().setChunkDays(30);
+        when(apodRepository.countByApodDateBetween(any(), any())).thenReturn(Mono.just(0L));
+        when(apodClient.apodRange(any(), any())).thenAnswer(invocation -> Mono.just(
+                published(invocation.getArgument(0), invocation.getArgument(1))));
+        when(apodBatchWriter.insertMissing(anyList())).thenAnswer(invocation ->
+                Flux.fromIterable(invocation.<List<Apod>>getArgument(0)));
+        service = new DefaultApodServiceImpl(apodRepository, apodBatchWriter, apodClient,
+                mock(CloudflareTtsClient.class), mock(R2StorageService.class), new AppProperties(), nasaProperties);
+    }
+
+    @Test
+    void backfillsNewestChunksFirstAndCountsInsertedDays() {
+        StepVerifier.create(service.backfillHistory(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 10)))
+                .expectNext(69L)
+                .verifyComplete();
+
+        InOrder order = inOrder(apodClient);
+        order.verify(apodClient).apodRange(LocalDate.of(2026, 2, 9), LocalDate.of(2026, 3, 10));
+        order.verify(apodClient).apodRange(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 2, 8));
+        order.verify(apodClient).apodRange(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 9));
+        order.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void skipsChunksThatAreAlreadyStored() {
+        when(apodRepository.countByApodDateBetween(LocalDate.of(2026, 2, 9), LocalDate.of(2026, 3, 10)))
+                .thenReturn(Mono.just(30L));
+        when(apodRepository.countByApodDateBetween(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 2, 8)))
+                .thenReturn(Mono.just(29L));
+
+        StepVerifier.create(service.backfillHistory(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 10)))
+                .expectNext(39L)
+                .verifyComplete();
+
+        verify(apodClient, never()).apodRange(eq(LocalDate.of(2026, 2, 9)), any());
+        verify(apodClient).apodRange(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 2, 8));
+        verify(apodClient).apodRange(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 9));
+    }
+
+    @Test
+    void clampsTheRangeToTheConfiguredMinimumAndPublishedDates() {
+        LocalDate latest = LocalDate.now(ZoneId.of("America/New_York"));
+
+        StepVerifier.create(service.backfillHistory(LocalDate.of(2020, 1, 1), latest.plusYears(1)))
+                .expectNext(ChronoUnit.DAYS.between(MIN_DATE, latest) + 1)
+                .verifyComplete();
+
+        verify(apodClient).apodRange(latest.minusDays(29), latest);
+        verify(apodClient).apodRange(eq(MIN_DATE), any());
+        verify(apodClient, never()).apodRange(argThat(date -> date.isBefore(MIN_DATE)), any());
+        verify(apodClient, never()).apodRange(any(), argThat(date -> date.isAfter(latest)));
+    }
+
+    @Test
+    void defaultMinimumReachesBackToTheStartOfTheArchive() {
+        DefaultApodServiceImpl unclamped = new DefaultApodServiceImpl(apodRepository, apodBatchWriter, apodClient,
+                mock(CloudflareTtsClient.class), mock(R2StorageService.class), new AppProperties(),
+                new NasaProperties());
+
+        StepVerifier.create(unclamped.backfillHistory(LocalDate.of(1995, 1, 1), LocalDate.of(1995, 6, 30)))
+                .expectNext(15L)
+                .verifyComplete();
+
+        verify(apodClient).apodRange(LocalDate.of(1995, 6, 16), LocalDate.of(1995, 6, 30));
+    }
+
+    private static List<ApodResponseDto> published(LocalDate start, LocalDate end) {
+        return start.datesUntil(end.plusDays(1))
+                .map(date -> {
+                    ApodResponseDto response = new ApodResponseDto();
+                    response.setDate(date.toString());
+                    response.setTitle("APOD " + date);
+                    return response;
+                })
+                .toList();
+    }
+}
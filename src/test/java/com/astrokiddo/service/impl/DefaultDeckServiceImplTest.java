@@ -0,0 +1,121 @@
+package com.astrokiddo.service.impl;
+
+import com.astrokiddo.config.CloudflareAiProperties;
+import com.astrokiddo.config.DeckProperties;
+import com.astrokiddo.config.NasaProperties;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import com.astrokiddo.entity.deck.Deck;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.repository.deck.LessonDeckMapper;
+import com.astrokiddo.repository.deck.LessonDeckReader;
+import com.astrokiddo.repository.deck.SlideRepository;
+import com.astrokiddo.service.DeckCrudService;
+import com.astrokiddo.service.LessonGeneratorService;
+import com.astrokiddo.store.DeckStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DefaultDeckServiceImplTest {
+
+    private final DeckCrudService deckCrudService = mock(DeckCrudService.class);
+    private final LessonGeneratorService lessonGeneratorService = mock(LessonGeneratorService.class);
+    private final DeckStore deckStore = mock(DeckStore.class);
+    private final LessonDeckReader lessonDeckReader = mock(LessonDeckReader.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DefaultDeckServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(deckStore.getByDeckKey(any())).thenReturn(Optional.empty());
+        when(lessonDeckReader.findByDeckKey(any())).thenReturn(Mono.empty());
+        when(deckCrudService.findByDeckKey(any())).thenReturn(Mono.empty());
+        when(deckCrudService.upsertWithSlides(any(), anyList())).thenAnswer(invocation -> {
+            Deck deck = invocation.getArgument(0);
+            deck.setId(42L);
+            return Mono.just(deck);
+        });
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        service = new DefaultDeckServiceImpl(deckCrudService, lessonGeneratorService, objectMapper,
+                mock(SlideRepository.class), new DeckProperties(), deckStore, lessonDeckReader,
+                new LessonDeckMapper(objectMapper), meterRegistry, new NasaProperties(), new CloudflareAiProperties());
+    }
+
+    @Test
+    void concurrentRequestsForTheSameDeckShareOneGeneration() {
+        Sinks.One<LessonDeck> generation = Sinks.one();
+        when(lessonGeneratorService.generate(any())).thenReturn(generation.asMono());
+
+        Mono<LessonDeck> first = service.findOrGenerate(request("saturn"));
+        Mono<LessonDeck> second = service.findOrGenerate(request("Saturn "));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> generation.tryEmitValue(new LessonDeck("saturn")))
+                .assertNext(decks -> assertSame(decks.getT1(), decks.getT2()))
+                .verifyComplete();
+
+        verify(lessonGeneratorService, times(1)).generate(any());
+        verify(deckCrudService, times(1)).upsertWithSlides(any(), anyList());
+        assertEquals(1, meterRegistry.get("astrokiddo.deck.generation.coalesced").counter().count());
+    }
+
+    @Test
+    void partialDeckIsSavedWithTheShortValidity() {
+        LessonDeck partial = new LessonDeck("saturn");
+        partial.setPartial(true);
+        when(lessonGeneratorService.generate(any())).thenReturn(Mono.just(partial));
+
+        Instant before = Instant.now();
+        StepVerifier.create(service.findOrGenerate(request("saturn")))
+                .assertNext(deck -> assertTrue(deck.getExpiresAt().isBefore(before.plus(Duration.ofHours(2)))))
+                .verifyComplete();
+
+        ArgumentCaptor<Deck> saved = ArgumentCaptor.forClass(Deck.class);
+        verify(deckCrudService).upsertWithSlides(saved.capture(), anyList());
+        assertTrue(saved.getValue().getExpiresAt().isBefore(before.plus(Duration.ofHours(2))));
+    }
+
+    @Test
+    void streamedDeckIsSavedAfterTheClientDisconnects() {
+        Sinks.Many<LessonDeck> drafts = Sinks.many().unicast().onBackpressureBuffer();
+        when(lessonGeneratorService.generateDrafts(any())).thenReturn(drafts.asFlux());
+
+        // The client goes away after the template slides, while enrichment is still running.
+        StepVerifier.create(service.streamGenerate(request("saturn")).take(1))
+                .then(() -> drafts.tryEmitNext(new LessonDeck("saturn")))
+                .expectNextCount(1)
+                .verifyComplete();
+        drafts.tryEmitNext(new LessonDeck("saturn"));
+        drafts.tryEmitComplete();
+
+        verify(deckCrudService, timeout(Duration.ofSeconds(5).toMillis())).upsertWithSlides(any(), anyList());
+    }
+
+    private static GenerateDeckRequestDto request(String topic) {
+        GenerateDeckRequestDto request = new GenerateDeckRequestDto();
+        request.setTopic(topic);
+        return request;
+    }
+}
@@ -0,0 +1,109 @@
+package com.astrokiddo.service.impl;
+
+import com.astrokiddo.cloudflare.CloudflareAiRecords;
+import com.astrokiddo.cloudflare.CloudflareAiService;
+import com.astrokiddo.config.DeckProperties;
+import com.astrokiddo.dto.GenerateDeckRequestDto;
+import com.astrokiddo.model.LessonDeck;
+import com.astrokiddo.nasa.ImageSearchResult;
+import com.astrokiddo.nasa.NasaReactiveCache;
+import com.astrokiddo.service.RequestPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DefaultLessonGeneratorServiceImplTest {
+
+    private static final Duration SLOW_MODEL = Duration.ofSeconds(30);
+
+    private final NasaReactiveCache cache = mock(NasaReactiveCache.class);
+    private final CloudflareAiService aiService = mock(CloudflareAiService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DefaultLessonGeneratorServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(cache.searchImages(any(), any(), any(), any())).thenReturn(Mono.just(ImageSearchResult.EMPTY));
+        when(aiService.enrich(any(), any()))
+                .thenAnswer(invocation -> Mono.delay(SLOW_MODEL).thenReturn(enrichment()));
+        service = new DefaultLessonGeneratorServiceImpl(cache, aiService, new DeckProperties(), meterRegistry);
+    }
+
+    @Test
+    void interactiveGenerationFallsBackToTheTemplateAfterTheEnrichmentTimeout() {
+        StepVerifier.withVirtualTime(() -> service.generate(request()))
+                .expectSubscription()
+                .thenAwait(Duration.ofSeconds(18))
+                .assertNext(deck -> {
+                    assertNull(deck.getEnrichment());
+                    assertTrue(deck.isPartial());
+                })
+                .verifyComplete();
+
+        assertEquals(1, stageCount("enrichment", "timeout"));
+        assertEquals(1, stageCount("total", "degraded"));
+    }
+
+    @Test
+    void backgroundGenerationWaitsForASlowModelWithinTheBackgroundDeadline() {
+        StepVerifier.withVirtualTime(() -> service.generate(request()).contextWrite(RequestPriority.background()))
+                .expectSubscription()
+                .thenAwait(SLOW_MODEL)
+                .assertNext(deck -> {
+                    assertNotNull(deck.getEnrichment());
+                    assertFalse(deck.isPartial());
+                })
+                .verifyComplete();
+
+        assertEquals(1, stageCount("enrichment", "success"));
+        assertEquals(1, stageCount("total", "success"));
+    }
+
+    @Test
+    void failedImageSearchMarksTheEnrichedDeckPartial() {
+        when(cache.searchImages(any(), any(), any(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("down")));
+        when(aiService.enrich(any(), any())).thenReturn(Mono.just(enrichment()));
+
+        StepVerifier.create(service.generate(request()))
+                .assertNext(deck -> {
+                    assertNotNull(deck.getEnrichment());
+                    assertTrue(deck.isPartial());
+                })
+                .verifyComplete();
+
+        assertEquals(1, stageCount("images", "error"));
+    }
+
+    private long stageCount(String stage, String outcome) {
+        return meterRegistry.get("astrokiddo.generation.stage").tag("stage", stage).tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private static GenerateDeckRequestDto request() {
+        GenerateDeckRequestDto request = new GenerateDeckRequestDto();
+        request.setTopic("saturn");
+        request.setGradeLevel("5");
+        return request;
+    }
+
+    private static CloudflareAiRecords.EnrichmentResponse enrichment() {
+        return new CloudflareAiRecords.EnrichmentResponse("Hook", "Explanation", "Why", "Question?", List.of(),
+                "Fun fact", "NASA", null);
+    }
+}